@@ -1,5 +1,7 @@
 package org.goalapp.challenge;
 
+import org.goalapp.common.kafka.EnableKafkaTopics;
+import org.goalapp.common.outbox.EnableOutbox;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
@@ -8,6 +10,8 @@ import org.springframework.kafka.annotation.EnableKafka;
 @SpringBootApplication
 @EnableKafka  // Enable Kafka for challenge system
 @EnableFeignClients  // Enable Feign clients for inter-service communication
+@EnableOutbox  // Kafka events go through the transactional outbox
+@EnableKafkaTopics
 public class ChallengeServiceApplication {
 
     public static void main(String[] args) {
@@ -9,9 +9,11 @@ import org.goalapp.challenge.repository.ChallengeRepository;
 import org.goalapp.common.dto.GoalCreatedEvent;
 import org.goalapp.common.dto.NotificationEvent;
 import org.goalapp.common.dto.CreateSharedGoalEvent;
+import org.goalapp.common.kafka.KafkaTopics;
+import org.goalapp.common.outbox.OutboxPublisher;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
@@ -29,10 +31,7 @@ public class ChallengeService {
     private ChallengeRepository challengeRepository;
 
     @Autowired
-    private KafkaTemplate<String, NotificationEvent> notificationKafkaTemplate;
-
-    @Autowired
-    private KafkaTemplate<String, CreateSharedGoalEvent> goalKafkaTemplate;
+    private OutboxPublisher outboxPublisher;
 
     @Autowired
     private UserClient userClient;
@@ -126,40 +125,35 @@ public class ChallengeService {
     // ... rest of your methods
 
     private void sendChallengerResponseNotification(Challenge challenge, ChallengeResponse response) {
+        // Get the username of the user who responded to the challenge
+        String respondingUsername = "Unknown User"; // Default fallback
         try {
-            // Get the username of the user who responded to the challenge
-            String respondingUsername = "Unknown User"; // Default fallback
-            try {
-                UserDto respondingUser = userClient.getUserById(challenge.getChallengedUserId());
-                if (respondingUser != null && respondingUser.getUsername() != null) {
-                    respondingUsername = respondingUser.getUsername();
-                }
-            } catch (Exception e) {
-                log.warn("Failed to fetch username for user {}: {}", challenge.getChallengedUserId(), e.getMessage());
+            UserDto respondingUser = userClient.getUserById(challenge.getChallengedUserId());
+            if (respondingUser != null && respondingUser.getUsername() != null) {
+                respondingUsername = respondingUser.getUsername();
             }
+        } catch (Exception e) {
+            log.warn("Failed to fetch username for user {}: {}", challenge.getChallengedUserId(), e.getMessage());
+        }
 
-            String message = response == ChallengeResponse.ACCEPT
-                    ? String.format("🎉 Great news! %s accepted your challenge '%s'! A shared goal has been created.", respondingUsername, challenge.getTitle())
-                    : String.format("😔 %s declined your challenge '%s'.", respondingUsername, challenge.getTitle());
-
-            String notificationType = "CHALLENGE_RESPONSE";
+        String message = response == ChallengeResponse.ACCEPT
+                ? String.format("🎉 Great news! %s accepted your challenge '%s'! A shared goal has been created.", respondingUsername, challenge.getTitle())
+                : String.format("😔 %s declined your challenge '%s'.", respondingUsername, challenge.getTitle());
 
-            NotificationEvent notification = new NotificationEvent(
-                    challenge.getChallengerId(),     // Notify the challenger
-                    notificationType,                // Type of notification
-                    message,                         // User-friendly message
-                    challenge.getChallengedUserId(), // Who responded (source user)
-                    challenge.getId()                // Related challenge ID
-            );
+        String notificationType = "CHALLENGE_RESPONSE";
 
-            log.info("📤 Sending {} notification to challenger (user {}): {}",
-                    notificationType, challenge.getChallengerId(), message);
+        NotificationEvent notification = new NotificationEvent(
+                challenge.getChallengerId(),     // Notify the challenger
+                notificationType,                // Type of notification
+                message,                         // User-friendly message
+                challenge.getChallengedUserId(), // Who responded (source user)
+                challenge.getId()                // Related challenge ID
+        );
 
-            notificationKafkaTemplate.send("notification-topic", notification);
+        log.info("📤 Sending {} notification to challenger (user {}): {}",
+                notificationType, challenge.getChallengerId(), message);
 
-        } catch (Exception e) {
-            log.error("❌ Failed to send challenger response notification", e);
-        }
+        outboxPublisher.publish(KafkaTopics.NOTIFICATION, notification.getUserId(), notification);
     }
 
     /**
@@ -197,73 +191,63 @@ public class ChallengeService {
      * Send challenge notification to challenged user
      */
     private void sendChallengeNotification(Challenge challenge) {
+        // Get the username of the challenger
+        String challengerUsername = "Unknown User"; // Default fallback
         try {
-            // Get the username of the challenger
-            String challengerUsername = "Unknown User"; // Default fallback
-            try {
-                UserDto challenger = userClient.getUserById(challenge.getChallengerId());
-                if (challenger != null && challenger.getUsername() != null) {
-                    challengerUsername = challenger.getUsername();
-                }
-            } catch (Exception e) {
-                log.warn("Failed to fetch username for challenger {}: {}", challenge.getChallengerId(), e.getMessage());
+            UserDto challenger = userClient.getUserById(challenge.getChallengerId());
+            if (challenger != null && challenger.getUsername() != null) {
+                challengerUsername = challenger.getUsername();
             }
+        } catch (Exception e) {
+            log.warn("Failed to fetch username for challenger {}: {}", challenge.getChallengerId(), e.getMessage());
+        }
 
-            // ✅ Create proper NotificationEvent with all required fields
-            NotificationEvent notification = new NotificationEvent(
-                    challenge.getChallengedUserId(),
-                    "CHALLENGE_RECEIVED",
-                    String.format("🎯 %s challenged you to: %s", challengerUsername, challenge.getTitle()),
-                    challenge.getChallengerId(),
-                    challenge.getId()
-            );
+        // ✅ Create proper NotificationEvent with all required fields
+        NotificationEvent notification = new NotificationEvent(
+                challenge.getChallengedUserId(),
+                "CHALLENGE_RECEIVED",
+                String.format("🎯 %s challenged you to: %s", challengerUsername, challenge.getTitle()),
+                challenge.getChallengerId(),
+                challenge.getId()
+        );
 
-            log.info("Sending challenge notification: {}", notification);
+        log.info("Sending challenge notification: {}", notification);
 
-            // Send to notification topic
-            notificationKafkaTemplate.send("notification-topic", notification);
+        // Queue for the notification topic; relayed after commit
+        outboxPublisher.publish(KafkaTopics.NOTIFICATION, notification.getUserId(), notification);
 
-            log.debug("Successfully sent challenge notification for challenge: {}", challenge.getId());
-        } catch (Exception e) {
-            log.error("Failed to send challenge notification", e);
-        }
+        log.debug("Successfully sent challenge notification for challenge: {}", challenge.getId());
     }
 
     /**
      * Create shared goal via Kafka when challenge is accepted
      */
     private void createSharedGoalViaKafka(Challenge challenge) {
-        try {
-            CreateSharedGoalEvent event = new CreateSharedGoalEvent();
-            event.setChallengeId(challenge.getId());
-            event.setTitle(challenge.getTitle());
-            event.setDescription(challenge.getDescription());
-            event.setChallengerId(challenge.getChallengerId());
-            event.setChallengedUserId(challenge.getChallengedUserId());
-            event.setDifficulty(challenge.getDifficulty().toString());
-            event.setDeadline(challenge.getDeadline());
-
-            // ✅ Add logging before sending
-            log.info("📤 Sending create shared goal event: challengeId={}, title={}, users=[{}, {}]",
-                    event.getChallengeId(), event.getTitle(),
-                    event.getChallengerId(), event.getChallengedUserId());
-
-            goalKafkaTemplate.send("create-shared-goal-topic", event);
-
-            log.info("✅ Successfully sent create shared goal event for challenge: {}",
-                    challenge.getId());
-
-        } catch (Exception e) {
-            log.error("❌ Failed to send create shared goal event for challenge: {}",
-                    challenge.getId(), e);
-        }
+        CreateSharedGoalEvent event = new CreateSharedGoalEvent();
+        event.setChallengeId(challenge.getId());
+        event.setTitle(challenge.getTitle());
+        event.setDescription(challenge.getDescription());
+        event.setChallengerId(challenge.getChallengerId());
+        event.setChallengedUserId(challenge.getChallengedUserId());
+        event.setDifficulty(challenge.getDifficulty().toString());
+        event.setDeadline(challenge.getDeadline());
+
+        // ✅ Add logging before sending
+        log.info("📤 Sending create shared goal event: challengeId={}, title={}, users=[{}, {}]",
+                event.getChallengeId(), event.getTitle(),
+                event.getChallengerId(), event.getChallengedUserId());
+
+        outboxPublisher.publish(KafkaTopics.CREATE_SHARED_GOAL, event.getChallengeId(), event);
+
+        log.info("✅ Queued create shared goal event for challenge: {}",
+                challenge.getId());
     }
 
     /**
      * Handle goal creation response from goal service
      */
-    @KafkaListener(topics = "goal-created-topic", groupId = "challenge-service-group")
-    public void handleGoalCreated(GoalCreatedEvent event) {
+    @KafkaListener(topics = KafkaTopics.GOAL_CREATED, groupId = "challenge-service-group")
+    public void handleGoalCreated(GoalCreatedEvent event, Acknowledgment ack) {
         try {
             Challenge challenge = challengeRepository.findById(event.getChallengeId())
                     .orElseThrow(() -> new RuntimeException("Challenge not found"));
@@ -280,5 +264,7 @@ public class ChallengeService {
         } catch (Exception e) {
             log.error("Error handling goal created event", e);
         }
+        // Re-applying the same goal id is harmless, so redeliveries need no dedupe here
+        ack.acknowledge();
     }
 }
@@ -0,0 +1,80 @@
+package org.goalapp.common.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published on points-topic when a goal assignment is completed or missed.
+ * Carries everything the points pipeline needs, so it never has to call back into goal-service.
+ */
+public class GoalLifecycleEvent {
+    public static final String GOAL_COMPLETED = "GOAL_COMPLETED";
+    public static final String GOAL_MISSED = "GOAL_MISSED";
+
+    private String eventId;     // stable across redeliveries; points-service dedupes awards on it
+    private Long goalId;
+    private Long userId;
+    private String type;        // GOAL_COMPLETED, GOAL_MISSED
+    private String difficulty;  // EASY, MEDIUM, HARD
+    private String title;
+    private String goalType;    // PERSONAL, SHARED
+    private LocalDateTime deadline; // of the completed/missed assignment (occurrence due date for recurring goals)
+    private LocalDateTime timestamp;
+
+    // Default constructor required for deserialization
+    public GoalLifecycleEvent() {
+        this.timestamp = LocalDateTime.now();
+    }
+
+    public GoalLifecycleEvent(Long goalId, Long userId, String type, String difficulty, String title, String goalType) {
+        this.goalId = goalId;
+        this.userId = userId;
+        this.type = type;
+        this.difficulty = difficulty;
+        this.title = title;
+        this.goalType = goalType;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    // Getters and setters
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+
+    public Long getGoalId() { return goalId; }
+    public void setGoalId(Long goalId) { this.goalId = goalId; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getDifficulty() { return difficulty; }
+    public void setDifficulty(String difficulty) { this.difficulty = difficulty; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getGoalType() { return goalType; }
+    public void setGoalType(String goalType) { this.goalType = goalType; }
+
+    public LocalDateTime getDeadline() { return deadline; }
+    public void setDeadline(LocalDateTime deadline) { this.deadline = deadline; }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+
+    @Override
+    public String toString() {
+        return "GoalLifecycleEvent{" +
+                "eventId='" + eventId + '\'' +
+                ", goalId=" + goalId +
+                ", userId=" + userId +
+                ", type='" + type + '\'' +
+                ", difficulty='" + difficulty + '\'' +
+                ", title='" + title + '\'' +
+                ", goalType='" + goalType + '\'' +
+                ", deadline=" + deadline +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
@@ -0,0 +1,16 @@
+package org.goalapp.common.kafka;
+
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.*;
+
+/**
+ * Put on a service's application class to declare the shared topics
+ * (see {@link KafkaTopics}) with the configured partition count.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Import(KafkaTopicsConfiguration.class)
+public @interface EnableKafkaTopics {
+}
@@ -0,0 +1,19 @@
+package org.goalapp.common.kafka;
+
+/**
+ * Names of the Kafka topics shared between services.
+ * Events are keyed by the affected user id, except challenge events which are keyed by challenge id,
+ * so all events for one key land on one partition and are consumed in order.
+ */
+public final class KafkaTopics {
+
+    public static final String NOTIFICATION = "notification-topic";
+    public static final String POINTS = "points-topic";
+    public static final String CREATE_SHARED_GOAL = "create-shared-goal-topic";
+    public static final String GOAL_CREATED = "goal-created-topic";
+    // goal-service to itself: completions to fan out to the other assignees
+    public static final String GOAL_COMPLETED = "goal-completed-topic";
+
+    private KafkaTopics() {
+    }
+}
@@ -0,0 +1,31 @@
+package org.goalapp.common.kafka;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+
+/**
+ * Declares the shared topics with an explicit partition count instead of relying on broker
+ * auto-creation. KafkaAdmin creates missing topics and adds partitions to existing ones at startup.
+ * Imported through {@link EnableKafkaTopics}.
+ *
+ * goalapp.kafka.topics.partitions caps consumer parallelism: listener threads beyond the partition
+ * count sit idle. Raising it keeps per-key order for new events, but existing keys may move to
+ * another partition, so do it while the topics are drained.
+ */
+@Configuration(proxyBeanMethods = false)
+public class KafkaTopicsConfiguration {
+
+    @Bean
+    public KafkaAdmin.NewTopics goalAppTopics(@Value("${goalapp.kafka.topics.partitions:6}") int partitions,
+                                              @Value("${goalapp.kafka.topics.replicas:1}") int replicas) {
+        return new KafkaAdmin.NewTopics(
+                TopicBuilder.name(KafkaTopics.NOTIFICATION).partitions(partitions).replicas(replicas).build(),
+                TopicBuilder.name(KafkaTopics.POINTS).partitions(partitions).replicas(replicas).build(),
+                TopicBuilder.name(KafkaTopics.CREATE_SHARED_GOAL).partitions(partitions).replicas(replicas).build(),
+                TopicBuilder.name(KafkaTopics.GOAL_CREATED).partitions(partitions).replicas(replicas).build(),
+                TopicBuilder.name(KafkaTopics.GOAL_COMPLETED).partitions(partitions).replicas(replicas).build());
+    }
+}
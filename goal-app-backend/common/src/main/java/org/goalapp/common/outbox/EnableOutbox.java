@@ -0,0 +1,16 @@
+package org.goalapp.common.outbox;
+
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.*;
+
+/**
+ * Put on a service's application class to store outgoing Kafka events in the
+ * {@code outbox_events} table and relay them after commit.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Import(OutboxConfiguration.class)
+public @interface EnableOutbox {
+}
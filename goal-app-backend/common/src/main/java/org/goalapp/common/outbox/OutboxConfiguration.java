@@ -0,0 +1,37 @@
+package org.goalapp.common.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Registers the outbox entity/repository package alongside the service's own packages
+ * and wires the publisher and relay. Imported through {@link EnableOutbox}.
+ */
+@Configuration
+@EnableScheduling
+@AutoConfigurationPackage(basePackageClasses = OutboxEvent.class)
+public class OutboxConfiguration {
+
+    @Bean
+    public OutboxPublisher outboxPublisher(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        return new OutboxPublisher(jdbcTemplate, objectMapper);
+    }
+
+    @Bean
+    public OutboxRelay outboxRelay(OutboxEventRepository outboxEventRepository,
+                                   KafkaTemplate<String, Object> kafkaTemplate,
+                                   ObjectMapper objectMapper,
+                                   JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   MeterRegistry meterRegistry) {
+        return new OutboxRelay(outboxEventRepository, kafkaTemplate, objectMapper, jdbcTemplate, transactionTemplate,
+                meterRegistry);
+    }
+}
@@ -0,0 +1,31 @@
+package org.goalapp.common.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    List<OutboxEvent> findByStatusOrderByIdAsc(OutboxEvent.Status status, Pageable pageable);
+
+    // Keys whose oldest pending event is waiting out a retry backoff
+    @Query("SELECT DISTINCT e.messageKey FROM OutboxEvent e WHERE e.status = org.goalapp.common.outbox.OutboxEvent.Status.PENDING " +
+            "AND e.nextAttemptAt > ?1 AND e.messageKey IS NOT NULL")
+    List<String> findBackingOffKeys(LocalDateTime now);
+
+    // Pending events outside the given keys, so a key that is backing off cannot fill every batch
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = org.goalapp.common.outbox.OutboxEvent.Status.PENDING " +
+            "AND (e.messageKey IS NULL OR e.messageKey NOT IN ?1) ORDER BY e.id")
+    List<OutboxEvent> findPendingExcludingKeys(Collection<String> keys, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = org.goalapp.common.outbox.OutboxEvent.Status.SENT AND e.sentAt < ?1")
+    int deleteDeliveredBefore(LocalDateTime cutoff);
+}
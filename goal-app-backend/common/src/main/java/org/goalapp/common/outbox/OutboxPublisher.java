@@ -0,0 +1,79 @@
+package org.goalapp.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Entry point for producers: instead of calling KafkaTemplate.send directly, services hand
+ * events to the outbox inside their own transaction. The rows commit or roll back with the
+ * business change and are delivered later by {@link OutboxRelay}.
+ */
+public class OutboxPublisher {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_events (topic, message_key, payload_type, payload, status, attempts, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, 0, ?)";
+
+    private static final int INSERT_BATCH_SIZE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OutboxPublisher(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Queue one event. Events sharing a key are delivered in the order they were queued.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String topic, Object key, Object payload) {
+        publishAll(topic, List.of(payload), event -> key);
+    }
+
+    /**
+     * Queue many events for the same topic with a single JDBC batch.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void publishAll(String topic, Collection<T> payloads, Function<T, ?> keyExtractor) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> rows = new ArrayList<>(payloads.size());
+        for (T payload : payloads) {
+            Object key = keyExtractor.apply(payload);
+            rows.add(new Object[] {
+                    topic,
+                    key != null ? key.toString() : null,
+                    payload.getClass().getName(),
+                    serialize(payload),
+                    OutboxEvent.Status.PENDING.name(),
+                    now
+            });
+        }
+        for (int from = 0; from < rows.size(); from += INSERT_BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows.subList(from, Math.min(from + INSERT_BATCH_SIZE, rows.size())));
+        }
+    }
+
+    private String serialize(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize outbox payload " + payload.getClass().getName(), e);
+        }
+    }
+}
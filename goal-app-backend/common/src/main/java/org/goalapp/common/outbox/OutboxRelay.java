@@ -0,0 +1,256 @@
+package org.goalapp.common.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes pending outbox rows to Kafka in batches.
+ *
+ * Only one relay per service runs at a time (guarded by a MySQL named lock, held on its own connection),
+ * and within a batch events are sent in rounds: at most one in-flight record per key, so a failed send can
+ * never be overtaken by a later event for the same key. Kafka is awaited outside any transaction; each
+ * round's outcome is committed on its own.
+ *
+ * A failed event stays PENDING and is retried with capped exponential backoff for as long as it takes;
+ * until it goes out, the later events for its key are held back. Events past outbox.relay.max-attempts
+ * are reported by the outbox.events.stuck gauge.
+ */
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String MARK_SENT_SQL = "UPDATE outbox_events SET status = 'SENT', sent_at = ? WHERE id = ?";
+
+    private static final String MARK_FAILED_SQL =
+            "UPDATE outbox_events SET attempts = ?, last_error = ?, next_attempt_at = ? WHERE id = ?";
+
+    private static final String COUNT_STUCK_SQL =
+            "SELECT COUNT(*) FROM outbox_events WHERE status = 'PENDING' AND attempts >= ?";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter failureCounter;
+    private final AtomicLong stuckEvents = new AtomicLong();
+
+    @Value("${outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.relay.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    // Attempts after which a still-failing event counts as stuck (it keeps being retried)
+    @Value("${outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.relay.backoff-initial-ms:1000}")
+    private long backoffInitialMs;
+
+    @Value("${outbox.relay.backoff-max-ms:300000}")
+    private long backoffMaxMs;
+
+    @Value("${outbox.relay.retention-hours:168}")
+    private long retentionHours;
+
+    @Value("${outbox.relay.lock-name:outbox-relay:${spring.application.name:default}}")
+    private String lockName;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       ObjectMapper objectMapper,
+                       JdbcTemplate jdbcTemplate,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.failureCounter = Counter.builder("outbox.relay.send.failures")
+                .description("Outbox sends that failed and were scheduled for a retry")
+                .register(meterRegistry);
+        Gauge.builder("outbox.events.stuck", stuckEvents, AtomicLong::get)
+                .description("Pending outbox events that have failed at least outbox.relay.max-attempts times")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void relay() {
+        try (Connection lockConnection = jdbcTemplate.getDataSource().getConnection()) {
+            if (!acquireLock(lockConnection)) {
+                return; // another instance is relaying
+            }
+            try {
+                BatchResult result;
+                do {
+                    result = relayBatch();
+                } while (result.failed() == 0 && result.sent() >= batchSize);
+                if (result.failed() > 0 || stuckEvents.get() > 0) {
+                    Long stuck = jdbcTemplate.queryForObject(COUNT_STUCK_SQL, Long.class, maxAttempts);
+                    stuckEvents.set(stuck != null ? stuck : 0);
+                }
+            } finally {
+                releaseLock(lockConnection);
+            }
+        } catch (SQLException e) {
+            log.warn("Outbox relay could not get its lock connection: {}", e.toString());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.purge-interval-ms:3600000}")
+    public void purgeDelivered() {
+        Integer purged = transactionTemplate.execute(status ->
+                outboxEventRepository.deleteDeliveredBefore(LocalDateTime.now().minusHours(retentionHours)));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} delivered outbox events", purged);
+        }
+    }
+
+    private boolean acquireLock(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            ps.setString(1, lockName);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void releaseLock(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, lockName);
+            ps.executeQuery().close();
+        }
+    }
+
+    private BatchResult relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> backingOff = outboxEventRepository.findBackingOffKeys(now);
+        List<OutboxEvent> batch = backingOff.isEmpty()
+                ? outboxEventRepository.findByStatusOrderByIdAsc(OutboxEvent.Status.PENDING, PageRequest.of(0, batchSize))
+                : outboxEventRepository.findPendingExcludingKeys(backingOff, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+
+        Map<String, Deque<OutboxEvent>> byKey = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            String key = event.getMessageKey() != null ? event.getMessageKey() : "";
+            byKey.computeIfAbsent(key, k -> new ArrayDeque<>()).add(event);
+        }
+        // A key whose oldest event is backing off waits as a whole, so nothing overtakes that event
+        byKey.values().removeIf(events -> events.peek().getNextAttemptAt() != null
+                && events.peek().getNextAttemptAt().isAfter(now));
+
+        int sent = 0;
+        int failed = 0;
+        while (!byKey.isEmpty()) {
+            Map<String, CompletableFuture<SendResult<String, Object>>> round = new LinkedHashMap<>();
+            Map<String, OutboxEvent> roundEvents = new HashMap<>();
+            for (Map.Entry<String, Deque<OutboxEvent>> entry : byKey.entrySet()) {
+                OutboxEvent event = entry.getValue().peek();
+                roundEvents.put(entry.getKey(), event);
+                round.put(entry.getKey(), send(event));
+            }
+
+            List<OutboxEvent> roundSent = new ArrayList<>();
+            List<OutboxEvent> roundFailed = new ArrayList<>();
+            for (Map.Entry<String, CompletableFuture<SendResult<String, Object>>> entry : round.entrySet()) {
+                OutboxEvent event = roundEvents.get(entry.getKey());
+                try {
+                    entry.getValue().get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                    event.setSentAt(LocalDateTime.now());
+                    roundSent.add(event);
+                    byKey.get(entry.getKey()).poll();
+                } catch (Exception e) {
+                    recordFailure(event, e);
+                    roundFailed.add(event);
+                    // Hold back the rest of this key until its backoff has passed
+                    byKey.remove(entry.getKey());
+                }
+            }
+            saveRound(roundSent, roundFailed);
+            sent += roundSent.size();
+            failed += roundFailed.size();
+            byKey.values().removeIf(Deque::isEmpty);
+        }
+
+        log.debug("Relayed {} of {} outbox events, {} failed", sent, batch.size(), failed);
+        return new BatchResult(sent, failed);
+    }
+
+    private void saveRound(List<OutboxEvent> sent, List<OutboxEvent> failed) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                jdbcTemplate.batchUpdate(MARK_SENT_SQL, sent, sent.size(), (ps, event) -> {
+                    ps.setTimestamp(1, Timestamp.valueOf(event.getSentAt()));
+                    ps.setLong(2, event.getId());
+                });
+            }
+            if (!failed.isEmpty()) {
+                jdbcTemplate.batchUpdate(MARK_FAILED_SQL, failed, failed.size(), (ps, event) -> {
+                    ps.setInt(1, event.getAttempts());
+                    ps.setString(2, event.getLastError());
+                    ps.setTimestamp(3, Timestamp.valueOf(event.getNextAttemptAt()));
+                    ps.setLong(4, event.getId());
+                });
+            }
+        });
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(OutboxEvent event) {
+        try {
+            Object payload = objectMapper.readValue(event.getPayload(), Class.forName(event.getPayloadType()));
+            return kafkaTemplate.send(event.getTopic(), event.getMessageKey(), payload);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void recordFailure(OutboxEvent event, Exception e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        event.setAttempts(event.getAttempts() + 1);
+        event.setLastError(truncate(cause.toString()));
+        long backoffMs = backoffInitialMs << Math.min(event.getAttempts() - 1, 20);
+        event.setNextAttemptAt(LocalDateTime.now().plusNanos(Math.min(backoffMs, backoffMaxMs) * 1_000_000));
+        failureCounter.increment();
+        if (event.getAttempts() == maxAttempts) {
+            log.error("Outbox event {} for topic {} still failing after {} attempts; retrying every {} ms, " +
+                            "later events for key {} are held back",
+                    event.getId(), event.getTopic(), event.getAttempts(), backoffMaxMs, event.getMessageKey(), cause);
+        } else {
+            log.warn("Outbox event {} for topic {} failed (attempt {}): {}",
+                    event.getId(), event.getTopic(), event.getAttempts(), cause.getMessage());
+        }
+    }
+
+    private String truncate(String message) {
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    private record BatchResult(int sent, int failed) {
+    }
+}
@@ -0,0 +1,85 @@
+package org.goalapp.common.stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * Writes a query result as a JSON array straight from a JDBC cursor.
+ * Only the current row (or group of rows) is held in memory: elements are serialized as they are
+ * read and flushed every {@code flushEvery} elements, while the driver fetches {@code fetchSize}
+ * rows at a time (MySQL needs {@code useCursorFetch=true} on the connection for that).
+ *
+ * If the client goes away mid-stream the write fails, the cursor is closed and the rest of
+ * the result is never read.
+ */
+public class JdbcJsonStreamer {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcJsonStreamer.class);
+
+    /**
+     * Turns rows into array elements. Consecutive rows may be folded into one element,
+     * e.g. a goal followed by its assignment rows.
+     */
+    public interface RowEmitter {
+        void onRow(ResultSet rs, Consumer<Object> emit) throws SQLException;
+
+        default void onEnd(Consumer<Object> emit) {
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int flushEvery;
+
+    public JdbcJsonStreamer(JdbcTemplate dataSourceTemplate, ObjectMapper objectMapper, int fetchSize, int flushEvery) {
+        // Own template so the fetch size does not leak into other queries
+        this.jdbcTemplate = new JdbcTemplate(dataSourceTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+        this.flushEvery = flushEvery;
+    }
+
+    public <T> void streamArray(OutputStream out, String sql, RowMapper<T> rowMapper, Object... args) throws IOException {
+        streamGrouped(out, sql, (rs, emit) -> emit.accept(rowMapper.mapRow(rs, rs.getRow())), args);
+    }
+
+    public void streamGrouped(OutputStream out, String sql, RowEmitter emitter, Object... args) throws IOException {
+        JsonGenerator generator = objectMapper.createGenerator(out);
+        int[] written = {0};
+        Consumer<Object> emit = element -> {
+            try {
+                generator.writeObject(element);
+                if (++written[0] % flushEvery == 0) {
+                    generator.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+
+        try {
+            generator.writeStartArray();
+            jdbcTemplate.query(sql, rs -> {
+                emitter.onRow(rs, emit);
+            }, args);
+            emitter.onEnd(emit);
+            generator.writeEndArray();
+            generator.close();
+        } catch (UncheckedIOException e) {
+            // Usually the client disconnected; the query has been abandoned and its cursor closed
+            logger.debug("Streaming stopped after {} elements: {}", written[0], e.getCause().getMessage());
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.goalapp.goal.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Field;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Latency of assigning one goal to N users inside one transaction: a per-row insert that reads
+ * back its generated key (the statement Hibernate issues for each IDENTITY entity) against
+ * GoalAssignmentBatchRepository.insertPendingAssignments.
+ *
+ * By default the database is an in-process H2 in MySQL mode reached over a localhost TCP
+ * connection, so every statement costs a real (if short) socket round trip. H2 has nothing like
+ * rewriteBatchedStatements, so for the gap production sees point it at a scratch MySQL schema
+ * (the table is created if missing and truncated every iteration):
+ * -Djmh.args="-jvmArgsAppend -Djmh.jdbc.url=jdbc:mysql://localhost:3306/bench?rewriteBatchedStatements=true
+ * -Djmh.jdbc.user=... -Djmh.jdbc.password=..."
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class AssignmentInsertBenchmark {
+
+    private static final String CREATE_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS goal_assignments (id BIGINT AUTO_INCREMENT PRIMARY KEY, goal_id BIGINT, " +
+            "user_id BIGINT, status VARCHAR(255), completed_at DATETIME(6), last_updated DATETIME(6), " +
+            "occurrence INT, due_at DATETIME(6), version BIGINT NOT NULL DEFAULT 0)";
+
+    private static final String INSERT_ASSIGNMENT_SQL =
+            "INSERT INTO goal_assignments (goal_id, user_id, status, completed_at, last_updated, occurrence, due_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Param({"1", "10", "100", "1000"})
+    private int assignees;
+
+    private Server server;
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private GoalAssignmentBatchRepository batchRepository;
+    private List<Long> userIds;
+    private long goalId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, ReflectiveOperationException {
+        String url = System.getProperty("jmh.jdbc.url");
+        if (url == null) {
+            // Created in-process: the TCP server will not create databases for remote clients
+            DriverManager.getConnection("jdbc:h2:mem:goalapp_goal;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "").close();
+            server = Server.createTcpServer("-tcpPort", "0").start();
+            url = "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:goalapp_goal;MODE=MySQL;DB_CLOSE_DELAY=-1";
+        }
+        dataSource = new SingleConnectionDataSource(url, System.getProperty("jmh.jdbc.user", "sa"),
+                System.getProperty("jmh.jdbc.password", ""), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        batchRepository = new GoalAssignmentBatchRepository(jdbcTemplate, new SimpleMeterRegistry());
+        // goal.assignments.batch-size default
+        Field batchSize = GoalAssignmentBatchRepository.class.getDeclaredField("batchSize");
+        batchSize.setAccessible(true);
+        batchSize.setInt(batchRepository, 100);
+
+        userIds = LongStream.rangeClosed(1, assignees).boxed().toList();
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE goal_assignments");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.destroy();
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Benchmark
+    public void perRowIdentity() {
+        long goal = ++goalId;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Long userId : userIds) {
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement ps = connection.prepareStatement(INSERT_ASSIGNMENT_SQL, Statement.RETURN_GENERATED_KEYS);
+                    ps.setLong(1, goal);
+                    ps.setLong(2, userId);
+                    ps.setString(3, "PENDING");
+                    ps.setNull(4, Types.TIMESTAMP);
+                    ps.setTimestamp(5, now);
+                    ps.setNull(6, Types.INTEGER);
+                    ps.setNull(7, Types.TIMESTAMP);
+                    return ps;
+                }, new GeneratedKeyHolder());
+            }
+        });
+    }
+
+    @Benchmark
+    public void jdbcBatch() {
+        long goal = ++goalId;
+        transactionTemplate.executeWithoutResult(status -> batchRepository.insertPendingAssignments(goal, userIds));
+    }
+}
@@ -1,5 +1,7 @@
 package org.goalapp.goal;
 
+import org.goalapp.common.kafka.EnableKafkaTopics;
+import org.goalapp.common.outbox.EnableOutbox;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
@@ -8,6 +10,8 @@ import org.springframework.kafka.annotation.EnableKafka;
 @SpringBootApplication
 @EnableKafka
 @EnableFeignClients
+@EnableOutbox
+@EnableKafkaTopics
 public class GoalServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(GoalServiceApplication.class, args);
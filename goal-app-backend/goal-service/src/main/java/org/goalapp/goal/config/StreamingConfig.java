@@ -0,0 +1,19 @@
+package org.goalapp.goal.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.goalapp.common.stream.JdbcJsonStreamer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+public class StreamingConfig {
+
+    @Bean
+    public JdbcJsonStreamer jdbcJsonStreamer(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                             @Value("${streaming.fetch-size:500}") int fetchSize,
+                                             @Value("${streaming.flush-every:200}") int flushEvery) {
+        return new JdbcJsonStreamer(jdbcTemplate, objectMapper, fetchSize, flushEvery);
+    }
+}
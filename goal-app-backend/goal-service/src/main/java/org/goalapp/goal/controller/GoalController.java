@@ -1,14 +1,26 @@
 package org.goalapp.goal.controller;
 
+import org.goalapp.goal.dto.BulkCompletionRequest;
+import org.goalapp.goal.dto.BulkCompletionResult;
 import org.goalapp.goal.dto.GoalCreateDto;
+import org.goalapp.goal.dto.GoalImportReport;
 import org.goalapp.goal.dto.GoalResponseDto;
+import org.goalapp.goal.service.GoalArchiveService;
+import org.goalapp.goal.service.GoalCompletionMetrics;
+import org.goalapp.goal.service.GoalImportService;
 import org.goalapp.goal.service.GoalService;
+import org.goalapp.goal.service.OptimisticRetryExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +31,18 @@ public class GoalController {
     @Autowired
     private GoalService goalService;
 
+    @Autowired
+    private GoalCompletionMetrics completionMetrics;
+
+    @Autowired
+    private GoalArchiveService goalArchiveService;
+
+    @Autowired
+    private OptimisticRetryExecutor optimisticRetry;
+
+    @Autowired
+    private GoalImportService goalImportService;
+
 
 
 
@@ -33,28 +57,107 @@ public class GoalController {
         }
     }
 
+    /**
+     * Bulk import from CSV (text/csv, header row required) or NDJSON (one GoalCreateDto per line).
+     * The body is read as a stream; the response lists the rows that were rejected.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<GoalImportReport> importGoals(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        GoalImportService.Format format = MediaType.APPLICATION_NDJSON.includes(contentType)
+                ? GoalImportService.Format.NDJSON
+                : GoalImportService.Format.CSV;
+        return ResponseEntity.ok(goalImportService.importGoals(body, format));
+    }
+
+    // Read endpoints answer If-None-Match from revision stamps alone, before any goal or assignment is loaded
+
     @GetMapping("/{id}")
-    public ResponseEntity<GoalResponseDto> getGoalById(@PathVariable Long id) {
+    public ResponseEntity<GoalResponseDto> getGoalById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<String> etag = goalService.getGoalETag(id);
+        if (etag.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (matches(ifNoneMatch, etag.get())) {
+            return notModified(etag.get());
+        }
         Optional<GoalResponseDto> goal = goalService.getGoalById(id);
-        return goal.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+        return goal.map(body -> ResponseEntity.ok().eTag(etag.get()).body(body))
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<GoalResponseDto>> getGoalsByUserId(@PathVariable Long userId) {
+    public ResponseEntity<List<GoalResponseDto>> getGoalsByUserId(
+            @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = goalService.getGoalsByUserIdETag(userId);
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
         List<GoalResponseDto> goals = goalService.getGoalsByUserId(userId);
-        return ResponseEntity.ok(goals);
+        return ResponseEntity.ok().eTag(etag).body(goals);
+    }
+
+    // Constant-memory variant for users with many goals; same ETag as the list above
+    @GetMapping("/user/{userId}/stream")
+    public ResponseEntity<StreamingResponseBody> streamGoalsByUserId(
+            @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = goalService.getGoalsByUserIdETag(userId);
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        StreamingResponseBody body = out -> goalService.streamGoalsByUserId(userId, out);
+        return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // A goal with all of its sub-goals, parents first; progress is the cached weighted rollup
+    @GetMapping("/{id}/subtree")
+    public ResponseEntity<List<GoalResponseDto>> getSubtree(@PathVariable Long id) {
+        return goalService.getSubtree(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/created-by/{creatorId}")
-    public ResponseEntity<List<GoalResponseDto>> getGoalsByCreator(@PathVariable Long creatorId) {
+    public ResponseEntity<List<GoalResponseDto>> getGoalsByCreator(
+            @PathVariable Long creatorId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = goalService.getGoalsByCreatorETag(creatorId);
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
         List<GoalResponseDto> goals = goalService.getGoalsByCreator(creatorId);
-        return ResponseEntity.ok(goals);
+        return ResponseEntity.ok().eTag(etag).body(goals);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<GoalResponseDto>> searchGoals(@RequestParam String query) {
+    public ResponseEntity<List<GoalResponseDto>> searchGoals(
+            @RequestParam String query,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = goalService.searchGoalsETag(query);
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
         List<GoalResponseDto> goals = goalService.searchGoals(query);
-        return ResponseEntity.ok(goals);
+        return ResponseEntity.ok().eTag(etag).body(goals);
+    }
+
+    // Finished goals older than goal.archive.after-days live in the archive tables
+
+    @GetMapping("/archive/{id}")
+    public ResponseEntity<GoalResponseDto> getArchivedGoal(@PathVariable Long id) {
+        return goalArchiveService.getArchivedGoal(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/archive/user/{userId}")
+    public ResponseEntity<List<GoalResponseDto>> getArchivedGoalsByUserId(@PathVariable Long userId) {
+        return ResponseEntity.ok(goalArchiveService.getArchivedGoalsByUserId(userId));
     }
 
     @PutMapping("/{goalId}/complete")
@@ -62,16 +165,57 @@ public class GoalController {
             @PathVariable Long goalId,
             @RequestParam Long userId) {
         try {
-            GoalResponseDto goal = goalService.completeGoal(goalId, userId);
+            GoalResponseDto goal = completionMetrics.recordTransaction(
+                    () -> optimisticRetry.execute("complete", () -> goalService.completeGoal(goalId, userId)));
             return ResponseEntity.ok(goal);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @PutMapping("/complete")
+    public ResponseEntity<List<BulkCompletionResult>> completeGoals(@Valid @RequestBody BulkCompletionRequest request) {
+        try {
+            List<BulkCompletionResult> results = completionMetrics.recordTransaction(
+                    () -> optimisticRetry.execute("bulk-complete", () -> goalService.completeGoals(request.getItems())));
+            return ResponseEntity.ok(results);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping("/check-missed")
     public ResponseEntity<Void> checkMissedGoals() {
-        goalService.markMissedGoals();
+        optimisticRetry.run("missed-sweep", goalService::markMissedGoals);
         return ResponseEntity.ok().build();
     }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    /**
+     * If-None-Match may hold several (possibly weak) tags or "*".
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                tag = tag.substring(1, tag.length() - 1);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
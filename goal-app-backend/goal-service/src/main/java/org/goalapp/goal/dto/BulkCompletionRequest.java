@@ -0,0 +1,37 @@
+package org.goalapp.goal.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public class BulkCompletionRequest {
+    @NotEmpty(message = "At least one item is required")
+    @Valid
+    private List<Item> items;
+
+    public List<Item> getItems() { return items; }
+    public void setItems(List<Item> items) { this.items = items; }
+
+    public static class Item {
+        @NotNull(message = "Goal ID is required")
+        private Long goalId;
+
+        @NotNull(message = "User ID is required")
+        private Long userId;
+
+        public Item() {}
+
+        public Item(Long goalId, Long userId) {
+            this.goalId = goalId;
+            this.userId = userId;
+        }
+
+        public Long getGoalId() { return goalId; }
+        public void setGoalId(Long goalId) { this.goalId = goalId; }
+
+        public Long getUserId() { return userId; }
+        public void setUserId(Long userId) { this.userId = userId; }
+    }
+}
@@ -0,0 +1,39 @@
+package org.goalapp.goal.dto;
+
+import java.time.LocalDateTime;
+
+public class BulkCompletionResult {
+    public static final String COMPLETED = "COMPLETED";
+    public static final String ALREADY_COMPLETED = "ALREADY_COMPLETED";
+    public static final String MISSED = "MISSED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+
+    private Long goalId;
+    private Long userId;
+    private String status; // COMPLETED, ALREADY_COMPLETED, MISSED, NOT_FOUND
+    private Integer occurrence;
+    private LocalDateTime completedAt;
+
+    public BulkCompletionResult() {}
+
+    public BulkCompletionResult(Long goalId, Long userId, String status) {
+        this.goalId = goalId;
+        this.userId = userId;
+        this.status = status;
+    }
+
+    public Long getGoalId() { return goalId; }
+    public void setGoalId(Long goalId) { this.goalId = goalId; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Integer getOccurrence() { return occurrence; }
+    public void setOccurrence(Integer occurrence) { this.occurrence = occurrence; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -25,6 +25,16 @@ public class GoalCreateDto {
 
     private List<Long> assignedUserIds;
 
+    private String recurrence; // DAILY, WEEKLY - null for a one-off goal
+
+    private Integer recurrenceInterval = 1; // every N days/weeks
+
+    private LocalDateTime recurrenceEndsAt;
+
+    private Long parentId; // makes this a sub-goal of an existing goal
+
+    private Integer weight = 1; // share of the parent's progress, relative to its siblings
+
     // Getters and Setters
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
@@ -47,6 +57,21 @@ public class GoalCreateDto {
     public List<Long> getAssignedUserIds() { return assignedUserIds; }
     public void setAssignedUserIds(List<Long> assignedUserIds) { this.assignedUserIds = assignedUserIds; }
 
+    public String getRecurrence() { return recurrence; }
+    public void setRecurrence(String recurrence) { this.recurrence = recurrence; }
+
+    public Integer getRecurrenceInterval() { return recurrenceInterval; }
+    public void setRecurrenceInterval(Integer recurrenceInterval) { this.recurrenceInterval = recurrenceInterval; }
+
+    public LocalDateTime getRecurrenceEndsAt() { return recurrenceEndsAt; }
+    public void setRecurrenceEndsAt(LocalDateTime recurrenceEndsAt) { this.recurrenceEndsAt = recurrenceEndsAt; }
+
+    public Long getParentId() { return parentId; }
+    public void setParentId(Long parentId) { this.parentId = parentId; }
+
+    public Integer getWeight() { return weight; }
+    public void setWeight(Integer weight) { this.weight = weight; }
+
     public void setAssignedUsers(List<Long> list) {
         if (list != null && !list.isEmpty()) {
             this.assignedUserIds = list;
@@ -0,0 +1,45 @@
+package org.goalapp.goal.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GoalImportReport {
+    private int totalRows;
+    private int importedGoals;
+    private int failedRows;
+    private List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated; // more rows failed than are listed in errors
+
+    public int getTotalRows() { return totalRows; }
+    public void setTotalRows(int totalRows) { this.totalRows = totalRows; }
+
+    public int getImportedGoals() { return importedGoals; }
+    public void setImportedGoals(int importedGoals) { this.importedGoals = importedGoals; }
+
+    public int getFailedRows() { return failedRows; }
+    public void setFailedRows(int failedRows) { this.failedRows = failedRows; }
+
+    public List<RowError> getErrors() { return errors; }
+    public void setErrors(List<RowError> errors) { this.errors = errors; }
+
+    public boolean isErrorsTruncated() { return errorsTruncated; }
+    public void setErrorsTruncated(boolean errorsTruncated) { this.errorsTruncated = errorsTruncated; }
+
+    public static class RowError {
+        private int line;
+        private String message;
+
+        public RowError() {}
+
+        public RowError(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public int getLine() { return line; }
+        public void setLine(int line) { this.line = line; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+}
@@ -13,12 +13,20 @@ public class GoalResponseDto {
     private LocalDateTime deadline;
     private LocalDateTime createdAt;
     private List<AssignmentDto> assignments;
+    private String recurrence;
+    private Integer recurrenceInterval;
+    private LocalDateTime recurrenceEndsAt;
+    private Long parentId;
+    private Integer weight;
+    private Double progress; // weighted completion 0..1
 
     public static class AssignmentDto {
         private Long userId;
         private String status;
         private LocalDateTime completedAt;
         private LocalDateTime lastUpdated;
+        private Integer occurrence;
+        private LocalDateTime dueAt;
 
         // Getters and Setters
         public Long getUserId() { return userId; }
@@ -32,6 +40,12 @@ public class GoalResponseDto {
 
         public LocalDateTime getLastUpdated() { return lastUpdated; }
         public void setLastUpdated(LocalDateTime lastUpdated) { this.lastUpdated = lastUpdated; }
+
+        public Integer getOccurrence() { return occurrence; }
+        public void setOccurrence(Integer occurrence) { this.occurrence = occurrence; }
+
+        public LocalDateTime getDueAt() { return dueAt; }
+        public void setDueAt(LocalDateTime dueAt) { this.dueAt = dueAt; }
     }
 
     // Getters and Setters
@@ -61,4 +75,22 @@ public class GoalResponseDto {
 
     public List<AssignmentDto> getAssignments() { return assignments; }
     public void setAssignments(List<AssignmentDto> assignments) { this.assignments = assignments; }
+
+    public String getRecurrence() { return recurrence; }
+    public void setRecurrence(String recurrence) { this.recurrence = recurrence; }
+
+    public Integer getRecurrenceInterval() { return recurrenceInterval; }
+    public void setRecurrenceInterval(Integer recurrenceInterval) { this.recurrenceInterval = recurrenceInterval; }
+
+    public LocalDateTime getRecurrenceEndsAt() { return recurrenceEndsAt; }
+    public void setRecurrenceEndsAt(LocalDateTime recurrenceEndsAt) { this.recurrenceEndsAt = recurrenceEndsAt; }
+
+    public Long getParentId() { return parentId; }
+    public void setParentId(Long parentId) { this.parentId = parentId; }
+
+    public Integer getWeight() { return weight; }
+    public void setWeight(Integer weight) { this.weight = weight; }
+
+    public Double getProgress() { return progress; }
+    public void setProgress(Double progress) { this.progress = progress; }
 }
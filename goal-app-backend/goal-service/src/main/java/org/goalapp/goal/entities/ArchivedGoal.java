@@ -0,0 +1,112 @@
+package org.goalapp.goal.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only copy of a finished goal moved out of the hot goals table by GoalArchiveService.
+ * Columns mirror Goal so rows can be copied with INSERT ... SELECT.
+ */
+@Entity
+@Immutable
+@Table(name = "goals_archive", indexes = {
+        @Index(name = "idx_goals_archive_created_by", columnList = "createdBy")
+})
+public class ArchivedGoal {
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Long getCreatedBy() {
+        return createdBy;
+    }
+
+    public Goal.GoalType getType() {
+        return type;
+    }
+
+    public Goal.Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public LocalDateTime getDeadline() {
+        return deadline;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Goal.Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    public Integer getRecurrenceInterval() {
+        return recurrenceInterval;
+    }
+
+    public LocalDateTime getRecurrenceEndsAt() {
+        return recurrenceEndsAt;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public Integer getWeight() {
+        return weight;
+    }
+
+    public Double getProgress() {
+        return progress;
+    }
+
+    public Integer getChildWeightTotal() {
+        return childWeightTotal;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    @Id
+    private Long id;
+    private String title;
+    private String description;
+    private Long createdBy;
+    @Enumerated(EnumType.STRING)
+    private Goal.GoalType type;
+    @Enumerated(EnumType.STRING)
+    private Goal.Difficulty difficulty;
+    private LocalDateTime deadline;
+    private LocalDateTime createdAt;
+    @Enumerated(EnumType.STRING)
+    private Goal.Recurrence recurrence;
+    private Integer recurrenceInterval;
+    private LocalDateTime recurrenceEndsAt;
+    private Integer materializedThrough;
+    private LocalDateTime nextOccurrenceAt;
+    private Long parentId;
+    @Column(length = 512)
+    private String path;
+    private Integer weight;
+    private Double progress;
+    private Integer childWeightTotal;
+    private Long revision;
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,61 @@
+package org.goalapp.goal.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only copy of an assignment of an archived goal. Columns mirror GoalAssignment.
+ */
+@Entity
+@Immutable
+@Table(name = "goal_assignments_archive", indexes = {
+        @Index(name = "idx_assignments_archive_goal", columnList = "goalId"),
+        @Index(name = "idx_assignments_archive_user", columnList = "userId")
+})
+public class ArchivedGoalAssignment {
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getGoalId() {
+        return goalId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public GoalAssignment.Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public Integer getOccurrence() {
+        return occurrence;
+    }
+
+    public LocalDateTime getDueAt() {
+        return dueAt;
+    }
+
+    @Id
+    private Long id;
+    private Long goalId;
+    private Long userId;
+    @Enumerated(EnumType.STRING)
+    private GoalAssignment.Status status;
+    private LocalDateTime completedAt;
+    private LocalDateTime lastUpdated;
+    private Integer occurrence;
+    private LocalDateTime dueAt;
+}
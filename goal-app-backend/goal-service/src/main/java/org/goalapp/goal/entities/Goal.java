@@ -1,10 +1,20 @@
 package org.goalapp.goal.entities;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
-@Table(name = "goals")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "goals")
+@Table(name = "goals", indexes = {
+        @Index(name = "idx_goals_next_occurrence", columnList = "nextOccurrenceAt"),
+        @Index(name = "idx_goals_path", columnList = "path"),
+        @Index(name = "idx_goals_parent", columnList = "parentId")
+})
 public class Goal {
 
     public LocalDateTime getDeadline() {
@@ -71,6 +81,109 @@ public class Goal {
         this.type = type;
     }
 
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    public void setRecurrence(Recurrence recurrence) {
+        this.recurrence = recurrence;
+    }
+
+    public Integer getRecurrenceInterval() {
+        return recurrenceInterval;
+    }
+
+    public void setRecurrenceInterval(Integer recurrenceInterval) {
+        this.recurrenceInterval = recurrenceInterval;
+    }
+
+    public LocalDateTime getRecurrenceEndsAt() {
+        return recurrenceEndsAt;
+    }
+
+    public void setRecurrenceEndsAt(LocalDateTime recurrenceEndsAt) {
+        this.recurrenceEndsAt = recurrenceEndsAt;
+    }
+
+    public Integer getMaterializedThrough() {
+        return materializedThrough;
+    }
+
+    public void setMaterializedThrough(Integer materializedThrough) {
+        this.materializedThrough = materializedThrough;
+    }
+
+    public LocalDateTime getNextOccurrenceAt() {
+        return nextOccurrenceAt;
+    }
+
+    public void setNextOccurrenceAt(LocalDateTime nextOccurrenceAt) {
+        this.nextOccurrenceAt = nextOccurrenceAt;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public Integer getWeight() {
+        return weight;
+    }
+
+    public void setWeight(Integer weight) {
+        this.weight = weight;
+    }
+
+    public Double getProgress() {
+        return progress;
+    }
+
+    // In-memory only (the column is not updatable); keeps a loaded goal in step with the database
+    public void setProgress(Double progress) {
+        this.progress = progress;
+    }
+
+    public Integer getChildWeightTotal() {
+        return childWeightTotal;
+    }
+
+    public List<GoalAssignment> getAssignments() {
+        return assignments;
+    }
+
+    public boolean isRecurring() {
+        return recurrence != null;
+    }
+
+    /**
+     * Deadline of the given occurrence; occurrence 0 is the goal's own deadline.
+     */
+    public LocalDateTime occurrenceDeadline(int occurrence) {
+        int interval = recurrenceInterval != null ? recurrenceInterval : 1;
+        return recurrence == Recurrence.WEEKLY
+                ? deadline.plusWeeks((long) occurrence * interval)
+                : deadline.plusDays((long) occurrence * interval);
+    }
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -89,6 +202,51 @@ public class Goal {
     private LocalDateTime deadline;
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Recurring goals: null recurrence means a one-off goal.
+    // Occurrence assignments are created lazily; materializedThrough is the highest occurrence
+    // that has rows, nextOccurrenceAt is when the next one opens (null once the series ends).
+    @Enumerated(EnumType.STRING)
+    private Recurrence recurrence;
+
+    private Integer recurrenceInterval;
+    private LocalDateTime recurrenceEndsAt;
+    private Integer materializedThrough;
+    private LocalDateTime nextOccurrenceAt;
+
+    // Sub-goals: path is the chain of ids from the root, e.g. "/12/45/" for goal 45 under 12,
+    // so a whole subtree is one range scan on idx_goals_path. Null path means a root created before hierarchies.
+    private Long parentId;
+    @Column(length = 512)
+    private String path;
+    @Column(nullable = false, columnDefinition = "int not null default 1")
+    private Integer weight = 1;
+
+    // Cached weighted completion (0..1) and the sum of the children's weights. Both are only changed by
+    // GoalHierarchyService's atomic SQL updates, never written through the entity.
+    @Column(nullable = false, updatable = false, columnDefinition = "double not null default 0")
+    private Double progress = 0.0;
+    @Column(nullable = false, updatable = false, columnDefinition = "int not null default 0")
+    private Integer childWeightTotal = 0;
+
+    // Bumped atomically (GoalRevisionTracker) whenever the goal or any of its assignments
+    // changes; never written through the entity so a stale copy cannot roll it back.
+    @Column(nullable = false, updatable = false, columnDefinition = "bigint not null default 0")
+    private Long revision = 0L;
+
+    // Optimistic lock for entity writes (occurrence bookkeeping); the default lets ddl-auto add it to existing rows
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint not null default 0")
+    private Long version;
+
+    // Read-only view of the assignment rows; cached per goal id when the l2cache profile is on.
+    // Rows are written through GoalAssignment (or JDBC batches), so changes must evict this collection.
+    @OneToMany
+    @JoinColumn(name = "goal_id", insertable = false, updatable = false)
+    @OrderBy("id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "goal-assignments-by-goal")
+    private List<GoalAssignment> assignments = new ArrayList<>();
+
     public enum GoalType { PERSONAL, SHARED }
     public enum Difficulty { EASY, MEDIUM, HARD }
+    public enum Recurrence { DAILY, WEEKLY }
 }
\ No newline at end of file
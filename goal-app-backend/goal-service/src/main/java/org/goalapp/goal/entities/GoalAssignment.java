@@ -2,11 +2,17 @@ package org.goalapp.goal.entities;
 
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "goal_assignments")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "goal-assignments")
+@Table(name = "goal_assignments", indexes = {
+        @Index(name = "idx_assignments_status_due", columnList = "status, dueAt")
+})
 public class GoalAssignment {
 
     public Long getId() {
@@ -57,6 +63,26 @@ public class GoalAssignment {
         this.userId = userId;
     }
 
+    public Integer getOccurrence() {
+        return occurrence;
+    }
+
+    public void setOccurrence(Integer occurrence) {
+        this.occurrence = occurrence;
+    }
+
+    public LocalDateTime getDueAt() {
+        return dueAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setDueAt(LocalDateTime dueAt) {
+        this.dueAt = dueAt;
+    }
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -70,6 +96,15 @@ public class GoalAssignment {
     private LocalDateTime completedAt;
     private LocalDateTime lastUpdated = LocalDateTime.now();
 
+    // Only set for occurrences of recurring goals
+    private Integer occurrence;
+    private LocalDateTime dueAt;
+
+    // Optimistic lock; JDBC writers (GoalAssignmentBatchRepository) bump it themselves
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint not null default 0")
+    private Long version;
+
     public enum Status {
         PENDING, COMPLETED, MISSED
     }
@@ -0,0 +1,32 @@
+package org.goalapp.goal.entities;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dedupe record for CreateSharedGoalEvent: the primary key on challengeId guarantees at most one
+ * shared goal per challenge, however often the event is redelivered or by how many consumers.
+ */
+@Entity
+@Table(name = "processed_challenges")
+public class ProcessedChallenge {
+
+    public Long getChallengeId() {
+        return challengeId;
+    }
+
+    public Long getGoalId() {
+        return goalId;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    @Id
+    private Long challengeId;
+    @Column(nullable = false)
+    private Long goalId;
+    private LocalDateTime processedAt;
+}
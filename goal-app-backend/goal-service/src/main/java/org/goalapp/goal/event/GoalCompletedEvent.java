@@ -0,0 +1,36 @@
+package org.goalapp.goal.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Written to the outbox (goal-completed topic) inside the completion transaction and consumed by
+ * GoalCompletionFanout, which enriches it and notifies the other assignees.
+ */
+public class GoalCompletedEvent {
+    private Long goalId;
+    private String goalTitle;
+    private Long completingUserId;
+    private LocalDateTime completedAt;
+
+    public GoalCompletedEvent() {
+    }
+
+    public GoalCompletedEvent(Long goalId, String goalTitle, Long completingUserId, LocalDateTime completedAt) {
+        this.goalId = goalId;
+        this.goalTitle = goalTitle;
+        this.completingUserId = completingUserId;
+        this.completedAt = completedAt;
+    }
+
+    public Long getGoalId() { return goalId; }
+    public void setGoalId(Long goalId) { this.goalId = goalId; }
+
+    public String getGoalTitle() { return goalTitle; }
+    public void setGoalTitle(String goalTitle) { this.goalTitle = goalTitle; }
+
+    public Long getCompletingUserId() { return completingUserId; }
+    public void setCompletingUserId(Long completingUserId) { this.completingUserId = completingUserId; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
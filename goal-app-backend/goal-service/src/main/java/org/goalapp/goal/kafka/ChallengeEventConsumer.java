@@ -2,18 +2,24 @@ package org.goalapp.goal.kafka;
 
 import org.goalapp.common.dto.CreateSharedGoalEvent;
 import org.goalapp.common.dto.GoalCreatedEvent;
+import org.goalapp.common.kafka.KafkaTopics;
+import org.goalapp.common.outbox.OutboxPublisher;
 import org.goalapp.goal.dto.GoalCreateDto; // ✅ Use your existing DTO
 import org.goalapp.goal.entities.Goal;
 import org.goalapp.goal.service.GoalService;
+import org.goalapp.goal.service.SharedGoalDedupeStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class ChallengeEventConsumer {
@@ -24,15 +30,31 @@ public class ChallengeEventConsumer {
     private GoalService goalService;
 
     @Autowired
-    private KafkaTemplate<String, GoalCreatedEvent> kafkaTemplate;
+    private OutboxPublisher outboxPublisher;
 
-    @KafkaListener(topics = "create-shared-goal-topic", groupId = "goal-service-group")
-    public void handleCreateSharedGoal(CreateSharedGoalEvent event) {
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SharedGoalDedupeStore dedupeStore;
+
+    @KafkaListener(topics = KafkaTopics.CREATE_SHARED_GOAL, groupId = "goal-service-group")
+    public void handleCreateSharedGoal(CreateSharedGoalEvent event, Acknowledgment ack) {
         try {
             // ✅ Add detailed logging
             log.info("📨 Received create shared goal event: challengeId={}, title={}, challengerId={}, challengedUserId={}",
                     event.getChallengeId(), event.getTitle(), event.getChallengerId(), event.getChallengedUserId());
 
+            // Redelivery: answer with the goal we already created
+            Optional<Long> existingGoalId = dedupeStore.findGoalId(event.getChallengeId());
+            if (existingGoalId.isPresent()) {
+                log.info("🔁 Challenge {} already has shared goal {}, re-sending response",
+                        event.getChallengeId(), existingGoalId.get());
+                publishSuccess(event.getChallengeId(), existingGoalId.get());
+                ack.acknowledge();
+                return;
+            }
+
             // ✅ Map event to DTO with logging
             GoalCreateDto goalCreateDto = new GoalCreateDto();
             goalCreateDto.setTitle(event.getTitle());
@@ -53,26 +75,40 @@ public class ChallengeEventConsumer {
                     goalCreateDto.getTitle(), goalCreateDto.getType(),
                     goalCreateDto.getDifficulty(), assignedUsers);
 
-            // ✅ Call service with try-catch
-            Goal sharedGoal = goalService.createGoal(goalCreateDto);
-
-            // ✅ Verify goal was created
-            if (sharedGoal != null && sharedGoal.getId() != null) {
-                log.info("✅ Successfully created shared goal with ID: {} for challenge: {}",
-                        sharedGoal.getId(), event.getChallengeId());
-
-                // Send success response
-                GoalCreatedEvent response = new GoalCreatedEvent();
-                response.setChallengeId(event.getChallengeId());
-                response.setGoalId(sharedGoal.getId());
-                response.setSuccess(true);
-                kafkaTemplate.send("goal-created-topic", response);
-
-            } else {
-                log.error("❌ Goal creation returned null or invalid goal for challenge: {}",
-                        event.getChallengeId());
-                throw new RuntimeException("Goal creation failed - null result");
+            // ✅ Claim the challenge, create the goal and queue the success response in one transaction;
+            // the claim goes first so a duplicate delivery fails before doing any goal work
+            Goal sharedGoal;
+            try {
+                sharedGoal = transactionTemplate.execute(status -> {
+                    dedupeStore.claim(event.getChallengeId());
+                    Goal goal = goalService.createGoal(goalCreateDto);
+                    if (goal == null || goal.getId() == null) {
+                        log.error("❌ Goal creation returned null or invalid goal for challenge: {}",
+                                event.getChallengeId());
+                        throw new RuntimeException("Goal creation failed - null result");
+                    }
+                    dedupeStore.record(event.getChallengeId(), goal.getId());
+
+                    GoalCreatedEvent response = new GoalCreatedEvent();
+                    response.setChallengeId(event.getChallengeId());
+                    response.setGoalId(goal.getId());
+                    response.setSuccess(true);
+                    outboxPublisher.publish(KafkaTopics.GOAL_CREATED, event.getChallengeId(), response);
+                    return goal;
+                });
+            } catch (DuplicateKeyException duplicate) {
+                // Another consumer claimed the challenge concurrently; nothing of ours was written
+                Long winnerGoalId = dedupeStore.findGoalId(event.getChallengeId())
+                        .orElseThrow(() -> new IllegalStateException("Challenge claimed but not visible"));
+                log.info("🔁 Challenge {} was claimed concurrently by goal {}", event.getChallengeId(), winnerGoalId);
+                publishSuccess(event.getChallengeId(), winnerGoalId);
+                ack.acknowledge();
+                return;
             }
+            dedupeStore.remember(event.getChallengeId(), sharedGoal.getId());
+
+            log.info("✅ Successfully created shared goal with ID: {} for challenge: {}",
+                    sharedGoal.getId(), event.getChallengeId());
 
         } catch (Exception e) {
             log.error("❌ Failed to create shared goal for challenge {}: {}",
@@ -83,7 +119,18 @@ public class ChallengeEventConsumer {
             response.setChallengeId(event.getChallengeId());
             response.setSuccess(false);
             response.setErrorMessage(e.getMessage());
-            kafkaTemplate.send("goal-created-topic", response);
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxPublisher.publish(KafkaTopics.GOAL_CREATED, event.getChallengeId(), response));
         }
+        ack.acknowledge();
+    }
+
+    private void publishSuccess(Long challengeId, Long goalId) {
+        GoalCreatedEvent response = new GoalCreatedEvent();
+        response.setChallengeId(challengeId);
+        response.setGoalId(goalId);
+        response.setSuccess(true);
+        transactionTemplate.executeWithoutResult(status ->
+                outboxPublisher.publish(KafkaTopics.GOAL_CREATED, challengeId, response));
     }
 }
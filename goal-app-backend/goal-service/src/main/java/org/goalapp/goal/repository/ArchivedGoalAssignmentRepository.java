@@ -0,0 +1,14 @@
+package org.goalapp.goal.repository;
+
+import org.goalapp.goal.entities.ArchivedGoalAssignment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedGoalAssignmentRepository extends JpaRepository<ArchivedGoalAssignment, Long> {
+
+    List<ArchivedGoalAssignment> findByGoalIdInOrderByIdAsc(Collection<Long> goalIds);
+}
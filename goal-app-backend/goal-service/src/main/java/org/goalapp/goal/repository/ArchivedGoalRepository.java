@@ -0,0 +1,15 @@
+package org.goalapp.goal.repository;
+
+import org.goalapp.goal.entities.ArchivedGoal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedGoalRepository extends JpaRepository<ArchivedGoal, Long> {
+
+    @Query("SELECT DISTINCT g FROM ArchivedGoal g JOIN ArchivedGoalAssignment ga ON g.id = ga.goalId WHERE ga.userId = ?1 ORDER BY g.createdAt DESC")
+    List<ArchivedGoal> findGoalsByUserId(Long userId);
+}
@@ -0,0 +1,178 @@
+package org.goalapp.goal.repository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.goalapp.goal.entities.GoalAssignment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC batch writer for goal assignments.
+ * Rows changed here bypass Hibernate, so callers evict them through GoalRevisionTracker.
+ * GoalAssignment uses IDENTITY ids, so Hibernate inserts them one statement at a time;
+ * this path lets MySQL hand out the auto-increment keys for a whole multi-row insert instead.
+ */
+@Repository
+public class GoalAssignmentBatchRepository {
+
+    private static final String INSERT_ASSIGNMENT_SQL =
+            "INSERT INTO goal_assignments (goal_id, user_id, status, completed_at, last_updated, occurrence, due_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String COMPLETE_ASSIGNMENTS_SQL =
+            "UPDATE goal_assignments SET status = 'COMPLETED', completed_at = :now, last_updated = :now, version = version + 1 " +
+            "WHERE id IN (:ids) AND status = 'PENDING'";
+
+    // Compare-and-set on the version read by the sweep: a row changed since then is left alone
+    private static final String MARK_MISSED_SQL =
+            "UPDATE goal_assignments SET status = 'MISSED', last_updated = ?, version = version + 1 " +
+            "WHERE id = ? AND version = ? AND status = 'PENDING'";
+
+    /**
+     * One assignment row to insert; occurrence and dueAt are null for one-off goals.
+     */
+    public record PendingAssignment(Long goalId, Long userId, Integer occurrence, LocalDateTime dueAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final Timer insertTimer;
+    private final DistributionSummary batchSizeSummary;
+
+    @Value("${goal.assignments.batch-size:100}")
+    private int batchSize;
+
+    public GoalAssignmentBatchRepository(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.insertTimer = Timer.builder("goal.assignments.batch.insert")
+                .description("Latency of bulk goal assignment inserts")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("goal.assignments.batch.size")
+                .description("Number of assignees per bulk goal assignment insert")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Insert a PENDING assignment of the goal for every user id, batchSize rows per round trip.
+     */
+    public void insertPendingAssignments(Long goalId, Collection<Long> userIds) {
+        insertPendingAssignments(goalId, userIds, null, null);
+    }
+
+    /**
+     * Same as above for one occurrence of a recurring goal.
+     */
+    public void insertPendingAssignments(Long goalId, Collection<Long> userIds, Integer occurrence, LocalDateTime dueAt) {
+        insertPendingAssignments(userIds.stream()
+                .map(userId -> new PendingAssignment(goalId, userId, occurrence, dueAt))
+                .toList());
+    }
+
+    /**
+     * Insert PENDING assignments that may span many goals (e.g. a chunk of imported goals).
+     */
+    public void insertPendingAssignments(List<PendingAssignment> assignments) {
+        if (assignments.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        batchSizeSummary.record(assignments.size());
+        insertTimer.record(() -> jdbcTemplate.batchUpdate(INSERT_ASSIGNMENT_SQL, assignments, batchSize, (ps, assignment) -> {
+            ps.setLong(1, assignment.goalId());
+            ps.setLong(2, assignment.userId());
+            ps.setString(3, GoalAssignment.Status.PENDING.name());
+            ps.setNull(4, Types.TIMESTAMP);
+            ps.setTimestamp(5, now);
+            if (assignment.occurrence() != null) {
+                ps.setInt(6, assignment.occurrence());
+                ps.setTimestamp(7, Timestamp.valueOf(assignment.dueAt()));
+            } else {
+                ps.setNull(6, Types.INTEGER);
+                ps.setNull(7, Types.TIMESTAMP);
+            }
+        }));
+    }
+
+    /**
+     * Mark the assignments COMPLETED in one statement. Rows no longer PENDING are skipped;
+     * returns the number of rows actually changed.
+     */
+    public int completeAssignments(Collection<Long> assignmentIds, LocalDateTime now) {
+        if (assignmentIds.isEmpty()) {
+            return 0;
+        }
+        return namedJdbcTemplate.update(COMPLETE_ASSIGNMENTS_SQL, new MapSqlParameterSource()
+                .addValue("ids", assignmentIds)
+                .addValue("now", Timestamp.valueOf(now)));
+    }
+
+    /**
+     * Lock the given assignments and return those still PENDING. Must run in the same
+     * transaction as completeAssignments so no other writer can slip in between.
+     */
+    public List<Long> lockCompletableIds(Collection<Long> assignmentIds) {
+        return namedJdbcTemplate.queryForList(
+                "SELECT id FROM goal_assignments WHERE id IN (:ids) AND status = 'PENDING' FOR UPDATE",
+                new MapSqlParameterSource("ids", assignmentIds), Long.class);
+    }
+
+    /**
+     * Current status of each assignment, for reporting rows that changed under us.
+     */
+    public Map<Long, GoalAssignment.Status> findStatuses(Collection<Long> assignmentIds) {
+        Map<Long, GoalAssignment.Status> statuses = new HashMap<>();
+        if (assignmentIds.isEmpty()) {
+            return statuses;
+        }
+        namedJdbcTemplate.query("SELECT id, status FROM goal_assignments WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", assignmentIds),
+                rs -> {
+                    statuses.put(rs.getLong("id"), GoalAssignment.Status.valueOf(rs.getString("status")));
+                });
+        return statuses;
+    }
+
+    /**
+     * Mark PENDING assignments MISSED, each only if its version is still the one that was read.
+     * Returns the assignments actually changed; the rest were completed (or missed) concurrently.
+     */
+    public List<GoalAssignment> markMissed(List<GoalAssignment> assignments, LocalDateTime now) {
+        if (assignments.isEmpty()) {
+            return List.of();
+        }
+        Timestamp lastUpdated = Timestamp.valueOf(now);
+        int[][] counts = jdbcTemplate.batchUpdate(MARK_MISSED_SQL, assignments, batchSize, (ps, assignment) -> {
+            ps.setTimestamp(1, lastUpdated);
+            ps.setLong(2, assignment.getId());
+            ps.setLong(3, assignment.getVersion());
+        });
+
+        List<GoalAssignment> changed = new ArrayList<>(assignments.size());
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count > 0) {
+                    changed.add(assignments.get(index));
+                }
+                index++;
+            }
+        }
+        return changed;
+    }
+}
@@ -5,6 +5,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +16,16 @@ public interface GoalAssignmentRepository extends JpaRepository<GoalAssignment,
     List<GoalAssignment> findByGoalId(Long goalId);
     List<GoalAssignment> findByStatus(GoalAssignment.Status status);
     Optional<GoalAssignment> findByGoalIdAndUserId(Long goalId, Long userId);
+    Optional<GoalAssignment> findByGoalIdAndUserIdAndOccurrenceIsNull(Long goalId, Long userId);
+    Optional<GoalAssignment> findByGoalIdAndUserIdAndOccurrence(Long goalId, Long userId, Integer occurrence);
+    List<GoalAssignment> findByGoalIdIn(Collection<Long> goalIds);
+    long countByGoalId(Long goalId);
+    // Superset of the requested (goal, user) pairs; callers filter to the exact pairs
+    List<GoalAssignment> findByGoalIdInAndUserIdInAndOccurrenceIsNull(Collection<Long> goalIds, Collection<Long> userIds);
+    List<GoalAssignment> findByStatusAndDueAtBefore(GoalAssignment.Status status, LocalDateTime dueAt);
+
+    @Query("SELECT DISTINCT ga.userId FROM GoalAssignment ga WHERE ga.goalId = ?1 AND ga.occurrence = 0")
+    List<Long> findRecurringParticipantIds(Long goalId);
 
     @Query("SELECT ga FROM GoalAssignment ga WHERE ga.userId = ?1 AND ga.status = ?2")
     List<GoalAssignment> findByUserIdAndStatus(Long userId, GoalAssignment.Status status);
@@ -0,0 +1,78 @@
+package org.goalapp.goal.repository;
+
+import org.goalapp.goal.entities.Goal;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC batch writer for goals. Like assignments, goals use IDENTITY ids, so Hibernate would insert
+ * them one by one; here a whole chunk goes in one multi-row insert and the generated ids are
+ * written back onto the entities.
+ */
+@Repository
+public class GoalBatchRepository {
+
+    private static final String INSERT_GOAL_SQL =
+            "INSERT INTO goals (title, description, created_by, type, difficulty, deadline, created_at, recurrence, " +
+            "recurrence_interval, recurrence_ends_at, materialized_through, next_occurrence_at, weight, revision, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public GoalBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert the goals in one batch and set their generated ids.
+     */
+    public void insertGoals(List<Goal> goals) {
+        if (goals.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_GOAL_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Goal goal : goals) {
+                    ps.setString(1, goal.getTitle());
+                    ps.setString(2, goal.getDescription());
+                    ps.setObject(3, goal.getCreatedBy(), Types.BIGINT);
+                    ps.setString(4, goal.getType().name());
+                    ps.setString(5, goal.getDifficulty().name());
+                    ps.setTimestamp(6, toTimestamp(goal.getDeadline()));
+                    ps.setTimestamp(7, toTimestamp(goal.getCreatedAt()));
+                    ps.setString(8, goal.getRecurrence() != null ? goal.getRecurrence().name() : null);
+                    ps.setObject(9, goal.getRecurrenceInterval(), Types.INTEGER);
+                    ps.setTimestamp(10, toTimestamp(goal.getRecurrenceEndsAt()));
+                    ps.setObject(11, goal.getMaterializedThrough(), Types.INTEGER);
+                    ps.setTimestamp(12, toTimestamp(goal.getNextOccurrenceAt()));
+                    ps.setInt(13, goal.getWeight());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (Goal goal : goals) {
+                        if (!keys.next()) {
+                            throw new IllegalStateException("Driver returned fewer generated keys than inserted goals");
+                        }
+                        goal.setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+}
@@ -7,20 +7,44 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface GoalRepository extends JpaRepository<Goal, Long> {
 
     // ✅ Same method names - no service changes needed
+    // Same order as findRevisionsByCreatedBy, so the list matches the ETag computed from it
+    @Query("SELECT g FROM Goal g WHERE g.createdBy = ?1 ORDER BY g.id")
     List<Goal> findByCreatedBy(Long userId);
     List<Goal> findByType(Goal.GoalType type);
     List<Goal> findByDeadlineBefore(LocalDateTime deadline);
+    List<Goal> findByDeadlineBeforeAndRecurrenceIsNull(LocalDateTime deadline);
+
+    // Recurring goals whose next occurrence opens at or before the horizon
+    List<Goal> findByNextOccurrenceAtLessThanEqual(LocalDateTime horizon);
+
+    // Subtree of a goal: every descendant's path starts with the ancestor's path
+    List<Goal> findByPathStartingWithOrderByPath(String pathPrefix);
 
     // ✅ Only change: Added ORDER BY g.createdAt DESC for newest first
-    @Query("SELECT g FROM Goal g JOIN GoalAssignment ga ON g.id = ga.goalId WHERE ga.userId = ?1 ORDER BY g.createdAt DESC")
+    // DISTINCT: recurring goals have one assignment per occurrence
+    @Query("SELECT DISTINCT g FROM Goal g JOIN GoalAssignment ga ON g.id = ga.goalId WHERE ga.userId = ?1 ORDER BY g.createdAt DESC")
     List<Goal> findGoalsByUserId(Long userId);
 
     // ✅ Only change: Added ORDER BY g.createdAt DESC for newest search results
     @Query("SELECT g FROM Goal g WHERE g.title LIKE %?1% OR g.description LIKE %?1% ORDER BY g.createdAt DESC")
     List<Goal> searchGoals(String query);
+
+    // Revision stamps for conditional GETs - same filters and order as the queries above
+    @Query("SELECT g.revision FROM Goal g WHERE g.id = ?1")
+    Optional<Long> findRevisionById(Long id);
+
+    @Query("SELECT DISTINCT g.id AS id, g.revision AS revision, g.createdAt AS createdAt FROM Goal g JOIN GoalAssignment ga ON g.id = ga.goalId WHERE ga.userId = ?1 ORDER BY g.createdAt DESC")
+    List<GoalRevision> findRevisionsByUserId(Long userId);
+
+    @Query("SELECT g.id AS id, g.revision AS revision FROM Goal g WHERE g.createdBy = ?1 ORDER BY g.id")
+    List<GoalRevision> findRevisionsByCreatedBy(Long userId);
+
+    @Query("SELECT g.id AS id, g.revision AS revision FROM Goal g WHERE g.title LIKE %?1% OR g.description LIKE %?1% ORDER BY g.createdAt DESC")
+    List<GoalRevision> findRevisionsBySearch(String query);
 }
@@ -0,0 +1,9 @@
+package org.goalapp.goal.repository;
+
+/**
+ * Projection used to build ETags without loading goals or their assignments.
+ */
+public interface GoalRevision {
+    Long getId();
+    Long getRevision();
+}
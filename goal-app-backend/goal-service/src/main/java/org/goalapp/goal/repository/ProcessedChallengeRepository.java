@@ -0,0 +1,9 @@
+package org.goalapp.goal.repository;
+
+import org.goalapp.goal.entities.ProcessedChallenge;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProcessedChallengeRepository extends JpaRepository<ProcessedChallenge, Long> {
+}
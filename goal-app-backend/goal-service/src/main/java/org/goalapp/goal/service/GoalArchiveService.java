@@ -0,0 +1,199 @@
+package org.goalapp.goal.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.goalapp.goal.dto.GoalResponseDto;
+import org.goalapp.goal.entities.ArchivedGoal;
+import org.goalapp.goal.entities.ArchivedGoalAssignment;
+import org.goalapp.goal.repository.ArchivedGoalAssignmentRepository;
+import org.goalapp.goal.repository.ArchivedGoalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Moves finished goals (no PENDING assignment left, no live descendants, deadline or series end older than
+ * goal.archive.after-days) together with their assignments into goals_archive / goal_assignments_archive,
+ * so the hot tables only hold live and recently finished goals.
+ *
+ * Work is done in keyset chunks by goal id, one short transaction per chunk.
+ */
+@Service
+public class GoalArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GoalArchiveService.class);
+
+    // SKIP LOCKED keeps the job from waiting on goals that are being updated, and lets
+    // several instances archive side by side. A goal with descendants still in the hot table stays
+    // there too (its subtree and progress roll-up live on path); it follows once they are archived.
+    private static final String SELECT_FINISHED_SQL =
+            "SELECT g.id FROM goals g " +
+            "WHERE g.id > :afterId AND g.deadline < :cutoff " +
+            "AND (g.recurrence IS NULL OR (g.recurrence_ends_at < :cutoff AND g.next_occurrence_at IS NULL)) " +
+            "AND NOT EXISTS (SELECT 1 FROM goal_assignments ga WHERE ga.goal_id = g.id AND ga.status = 'PENDING') " +
+            "AND NOT EXISTS (SELECT 1 FROM goals d WHERE d.path LIKE CONCAT(g.path, '%') AND d.id <> g.id) " +
+            "ORDER BY g.id LIMIT :limit FOR UPDATE SKIP LOCKED";
+
+    private static final String GOAL_COLUMNS =
+            "id, title, description, created_by, type, difficulty, deadline, created_at, recurrence, " +
+            "recurrence_interval, recurrence_ends_at, materialized_through, next_occurrence_at, parent_id, path, " +
+            "weight, progress, child_weight_total, revision";
+
+    private static final String ASSIGNMENT_COLUMNS =
+            "id, goal_id, user_id, status, completed_at, last_updated, occurrence, due_at";
+
+    private static final String ARCHIVE_GOALS_SQL =
+            "INSERT INTO goals_archive (" + GOAL_COLUMNS + ", archived_at) " +
+            "SELECT " + GOAL_COLUMNS + ", :archivedAt FROM goals WHERE id IN (:ids)";
+
+    private static final String ARCHIVE_ASSIGNMENTS_SQL =
+            "INSERT INTO goal_assignments_archive (" + ASSIGNMENT_COLUMNS + ") " +
+            "SELECT " + ASSIGNMENT_COLUMNS + " FROM goal_assignments WHERE goal_id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchivedGoalRepository archivedGoalRepository;
+    private final ArchivedGoalAssignmentRepository archivedGoalAssignmentRepository;
+    private final GoalRevisionTracker goalRevisionTracker;
+    private final Counter archivedGoals;
+
+    @Value("${goal.archive.after-days:90}")
+    private long afterDays;
+
+    @Value("${goal.archive.chunk-size:500}")
+    private int chunkSize;
+
+    public GoalArchiveService(NamedParameterJdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              ArchivedGoalRepository archivedGoalRepository,
+                              ArchivedGoalAssignmentRepository archivedGoalAssignmentRepository,
+                              GoalRevisionTracker goalRevisionTracker,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedGoalRepository = archivedGoalRepository;
+        this.archivedGoalAssignmentRepository = archivedGoalAssignmentRepository;
+        this.goalRevisionTracker = goalRevisionTracker;
+        this.archivedGoals = Counter.builder("goal.archive.goals")
+                .description("Goals moved to the archive tables")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${goal.archive.interval-ms:3600000}", fixedDelayString = "${goal.archive.interval-ms:3600000}")
+    public void archiveFinishedGoals() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        long afterId = 0;
+        int total = 0;
+
+        while (true) {
+            List<Long> chunk = archiveChunk(afterId, cutoff);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            total += chunk.size();
+            afterId = chunk.get(chunk.size() - 1);
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            logger.info("📦 Archived {} goals finished before {}", total, cutoff);
+        }
+    }
+
+    /**
+     * Archive up to chunkSize finished goals with ids above afterId. Returns the ids that were moved.
+     */
+    private List<Long> archiveChunk(long afterId, LocalDateTime cutoff) {
+        List<Long> ids = transactionTemplate.execute(status -> {
+            List<Long> goalIds = jdbcTemplate.queryForList(SELECT_FINISHED_SQL, new MapSqlParameterSource()
+                    .addValue("afterId", afterId)
+                    .addValue("cutoff", Timestamp.valueOf(cutoff))
+                    .addValue("limit", chunkSize), Long.class);
+            if (goalIds.isEmpty()) {
+                return goalIds;
+            }
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("ids", goalIds)
+                    .addValue("archivedAt", Timestamp.valueOf(LocalDateTime.now()));
+
+            jdbcTemplate.update(ARCHIVE_GOALS_SQL, params);
+            jdbcTemplate.update(ARCHIVE_ASSIGNMENTS_SQL, params);
+            jdbcTemplate.update("DELETE FROM goal_assignments WHERE goal_id IN (:ids)", params);
+            jdbcTemplate.update("DELETE FROM goals WHERE id IN (:ids)", params);
+            return goalIds;
+        });
+        if (!ids.isEmpty()) {
+            goalRevisionTracker.evict(ids);
+            archivedGoals.increment(ids.size());
+        }
+        return ids;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<GoalResponseDto> getArchivedGoal(Long goalId) {
+        return archivedGoalRepository.findById(goalId)
+                .map(goal -> convertToDto(goal, archivedGoalAssignmentRepository.findByGoalIdInOrderByIdAsc(List.of(goalId))));
+    }
+
+    @Transactional(readOnly = true)
+    public List<GoalResponseDto> getArchivedGoalsByUserId(Long userId) {
+        List<ArchivedGoal> goals = archivedGoalRepository.findGoalsByUserId(userId);
+        if (goals.isEmpty()) {
+            return List.of();
+        }
+        // One query for all assignments instead of one per goal
+        Map<Long, List<ArchivedGoalAssignment>> assignmentsByGoal = archivedGoalAssignmentRepository
+                .findByGoalIdInOrderByIdAsc(goals.stream().map(ArchivedGoal::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(ArchivedGoalAssignment::getGoalId));
+        return goals.stream()
+                .map(goal -> convertToDto(goal, assignmentsByGoal.getOrDefault(goal.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    private GoalResponseDto convertToDto(ArchivedGoal goal, List<ArchivedGoalAssignment> assignments) {
+        GoalResponseDto dto = new GoalResponseDto();
+        dto.setId(goal.getId());
+        dto.setTitle(goal.getTitle());
+        dto.setDescription(goal.getDescription());
+        dto.setCreatedBy(goal.getCreatedBy());
+        dto.setType(goal.getType().toString());
+        dto.setDifficulty(goal.getDifficulty().toString());
+        dto.setDeadline(goal.getDeadline());
+        dto.setCreatedAt(goal.getCreatedAt());
+        if (goal.getRecurrence() != null) {
+            dto.setRecurrence(goal.getRecurrence().toString());
+            dto.setRecurrenceInterval(goal.getRecurrenceInterval());
+            dto.setRecurrenceEndsAt(goal.getRecurrenceEndsAt());
+        }
+        dto.setParentId(goal.getParentId());
+        dto.setWeight(goal.getWeight());
+        dto.setProgress(goal.getProgress());
+        dto.setAssignments(assignments.stream().map(assignment -> {
+            GoalResponseDto.AssignmentDto assignmentDto = new GoalResponseDto.AssignmentDto();
+            assignmentDto.setUserId(assignment.getUserId());
+            assignmentDto.setStatus(assignment.getStatus().toString());
+            assignmentDto.setCompletedAt(assignment.getCompletedAt());
+            assignmentDto.setLastUpdated(assignment.getLastUpdated());
+            assignmentDto.setOccurrence(assignment.getOccurrence());
+            assignmentDto.setDueAt(assignment.getDueAt());
+            return assignmentDto;
+        }).collect(Collectors.toList()));
+        return dto;
+    }
+}
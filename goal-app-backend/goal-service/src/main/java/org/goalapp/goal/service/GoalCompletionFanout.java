@@ -0,0 +1,117 @@
+package org.goalapp.goal.service;
+
+import org.goalapp.common.dto.NotificationEvent;
+import org.goalapp.common.kafka.KafkaTopics;
+import org.goalapp.common.outbox.OutboxPublisher;
+import org.goalapp.goal.client.UserClient;
+import org.goalapp.goal.dto.UserDto;
+import org.goalapp.goal.entities.GoalAssignment;
+import org.goalapp.goal.event.GoalCompletedEvent;
+import org.goalapp.goal.repository.GoalAssignmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Tells the other assignees that a goal was completed. Completions are written to the outbox in the
+ * completion transaction and consumed here in batches from the goal-completed topic, so a slow
+ * user-service never holds a DB connection or delays the completing request, and a completion is
+ * never lost: a failed batch is not acknowledged and is redelivered.
+ */
+@Component
+public class GoalCompletionFanout {
+
+    private static final Logger logger = LoggerFactory.getLogger(GoalCompletionFanout.class);
+
+    @Autowired
+    private UserClient userClient;
+
+    @Autowired
+    private GoalAssignmentRepository goalAssignmentRepository;
+
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private GoalCompletionMetrics completionMetrics;
+
+    @KafkaListener(topics = KafkaTopics.GOAL_COMPLETED, groupId = "goal-service-fanout", batch = "true",
+            properties = {
+                    "spring.json.value.default.type=org.goalapp.goal.event.GoalCompletedEvent",
+                    "spring.json.trusted.packages=org.goalapp.goal.event"
+            })
+    public void onGoalsCompleted(List<GoalCompletedEvent> events, Acknowledgment ack) {
+        // Records that failed to deserialize arrive as null
+        List<GoalCompletedEvent> completions = events.stream().filter(Objects::nonNull).toList();
+        if (completions.size() < events.size()) {
+            logger.warn("Skipping {} undecodable goal completion records", events.size() - completions.size());
+        }
+        completions.forEach(completion -> completionMetrics.recordQueueWait(completion.getCompletedAt()));
+        if (!completions.isEmpty()) {
+            fanOut(completions);
+        }
+        ack.acknowledge();
+    }
+
+    /**
+     * One username lookup per completing user and one assignment query for all goals,
+     * then every notification goes to the outbox in a single batch.
+     */
+    private void fanOut(List<GoalCompletedEvent> completions) {
+        Map<Long, String> usernames = completionMetrics.recordUserLookup(() -> completions.stream()
+                .map(GoalCompletedEvent::getCompletingUserId)
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(), this::lookupUsername)));
+
+        completionMetrics.recordFanout(() -> transactionTemplate.executeWithoutResult(status -> {
+            Set<Long> goalIds = completions.stream().map(GoalCompletedEvent::getGoalId).collect(Collectors.toSet());
+            Map<Long, List<Long>> participantsByGoal = goalAssignmentRepository.findByGoalIdIn(goalIds).stream()
+                    .collect(Collectors.groupingBy(GoalAssignment::getGoalId,
+                            Collectors.mapping(GoalAssignment::getUserId, Collectors.toList())));
+
+            List<NotificationEvent> notifications = new ArrayList<>();
+            for (GoalCompletedEvent completion : completions) {
+                String completingUsername = usernames.get(completion.getCompletingUserId());
+                participantsByGoal.getOrDefault(completion.getGoalId(), List.of()).stream()
+                        .filter(userId -> !userId.equals(completion.getCompletingUserId()))
+                        .distinct()
+                        .map(userId -> new NotificationEvent(
+                                userId,
+                                "GOAL_COMPLETED_BY_FRIEND",
+                                completingUsername + " completed the goal: " + completion.getGoalTitle(),
+                                completion.getCompletingUserId(),  // sourceUserId - who completed the goal
+                                completion.getGoalId()             // relatedId - the goal that was completed
+                        ))
+                        .forEach(notifications::add);
+            }
+            outboxPublisher.publishAll(KafkaTopics.NOTIFICATION, notifications, NotificationEvent::getUserId);
+        }));
+    }
+
+    private String lookupUsername(Long userId) {
+        try {
+            UserDto user = userClient.getUserById(userId);
+            if (user != null && user.getUsername() != null) {
+                return user.getUsername();
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to fetch username for user {}: {}", userId, e.getMessage());
+        }
+        return "Your friend "; // Default fallback
+    }
+}
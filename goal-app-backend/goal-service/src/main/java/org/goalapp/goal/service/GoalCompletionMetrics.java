@@ -0,0 +1,54 @@
+package org.goalapp.goal.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Per-stage latency of goal completion, published as goal.completion.stage{stage=...}:
+ * transaction (request thread, including commit), queue (completion to fan-out: outbox relay and Kafka),
+ * user_lookup (user-service call) and fanout (friend notifications written to the outbox).
+ */
+@Component
+public class GoalCompletionMetrics {
+
+    private final Timer transactionTimer;
+    private final Timer queueTimer;
+    private final Timer userLookupTimer;
+    private final Timer fanoutTimer;
+
+    public GoalCompletionMetrics(MeterRegistry meterRegistry) {
+        this.transactionTimer = stageTimer(meterRegistry, "transaction");
+        this.queueTimer = stageTimer(meterRegistry, "queue");
+        this.userLookupTimer = stageTimer(meterRegistry, "user_lookup");
+        this.fanoutTimer = stageTimer(meterRegistry, "fanout");
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("goal.completion.stage")
+                .description("Latency of each goal completion stage")
+                .tag("stage", stage)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    public <T> T recordTransaction(Supplier<T> completion) {
+        return transactionTimer.record(completion);
+    }
+
+    public void recordQueueWait(LocalDateTime completedAt) {
+        queueTimer.record(Duration.between(completedAt, LocalDateTime.now()));
+    }
+
+    public <T> T recordUserLookup(Supplier<T> lookup) {
+        return userLookupTimer.record(lookup);
+    }
+
+    public void recordFanout(Runnable fanout) {
+        fanoutTimer.record(fanout);
+    }
+}
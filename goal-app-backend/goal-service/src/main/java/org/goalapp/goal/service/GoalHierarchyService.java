@@ -0,0 +1,198 @@
+package org.goalapp.goal.service;
+
+import org.goalapp.goal.entities.Goal;
+import org.goalapp.goal.repository.GoalAssignmentRepository;
+import org.goalapp.goal.repository.GoalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the goal tree (parent_id / materialized path) and the cached weighted progress of every goal.
+ *
+ * A leaf's progress is its share of completed assignments; a parent's is the weighted mean of its
+ * children. Nothing is recomputed from the subtree: each change applies a delta to the goal and scales
+ * it up the path (d * weight / parent's child_weight_total), so the cost is the depth of the tree.
+ * The chain is locked root-first (ancestors always have smaller ids) so concurrent updates on
+ * overlapping chains queue instead of deadlocking or losing a delta.
+ */
+@Service
+public class GoalHierarchyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GoalHierarchyService.class);
+
+    private static final int MAX_PATH_LENGTH = 512;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private GoalAssignmentRepository goalAssignmentRepository;
+
+    @Autowired
+    private GoalRevisionTracker goalRevisionTracker;
+
+    /**
+     * Place a freshly saved goal in the tree. A new child starts at 0% and dilutes its parent's progress.
+     */
+    public void attach(Goal goal) {
+        if (goal.getParentId() == null) {
+            goal.setPath(pathOf(goal));
+            return;
+        }
+
+        Goal parent = goalRepository.findById(goal.getParentId())
+                .orElseThrow(() -> new RuntimeException("Parent goal not found: " + goal.getParentId()));
+        if (parent.isRecurring() || goal.isRecurring()) {
+            throw new RuntimeException("Recurring goals cannot be part of a goal hierarchy");
+        }
+        String parentPath = pathOf(parent);
+        String path = parentPath + goal.getId() + "/";
+        if (path.length() > MAX_PATH_LENGTH) {
+            throw new RuntimeException("Goal hierarchy is too deep");
+        }
+        if (parent.getPath() == null) {
+            // Goal created before hierarchies existed; give it its root path so subtree scans include it
+            jdbcTemplate.update("UPDATE goals SET path = ? WHERE id = ? AND path IS NULL", parentPath, parent.getId());
+        }
+        goal.setPath(path);
+
+        List<Long> chain = pathIds(parentPath);
+        Map<Long, Node> nodes = lockChain(chain);
+        Node parentNode = nodes.get(parent.getId());
+        int weight = goal.getWeight();
+
+        // A leaf parent switches from assignment-based to child-based progress
+        double newProgress = parentNode.childWeightTotal == 0 ? 0.0
+                : parentNode.progress * parentNode.childWeightTotal / (parentNode.childWeightTotal + weight);
+        jdbcTemplate.update("UPDATE goals SET child_weight_total = child_weight_total + ?, progress = ? WHERE id = ?",
+                weight, newProgress, parent.getId());
+
+        double delta = newProgress - parentNode.progress;
+        parentNode.childWeightTotal += weight;
+        Map<Long, Double> deltas = scaleUp(chain, nodes, delta);
+        deltas.remove(parent.getId()); // already written above
+        applyDeltas(deltas);
+
+        List<Long> touched = new ArrayList<>(deltas.keySet());
+        touched.add(parent.getId());
+        goalRevisionTracker.touchAll(touched);
+        logger.info("🌳 Attached goal {} under {} (path={}, weight={})", goal.getId(), parent.getId(), path, weight);
+    }
+
+    /**
+     * Credit newly completed assignments to a leaf goal and roll the change up to its ancestors.
+     * Completions on a goal that has children do not move its progress.
+     */
+    public void onAssignmentsCompleted(Goal goal, int completed) {
+        if (completed <= 0 || goal.isRecurring()) {
+            return;
+        }
+        List<Long> chain = pathIds(pathOf(goal));
+        Map<Long, Node> nodes = lockChain(chain);
+        Node self = nodes.get(goal.getId());
+        if (self == null || self.childWeightTotal > 0) {
+            return;
+        }
+        long total = goalAssignmentRepository.countByGoalId(goal.getId());
+        if (total == 0) {
+            return;
+        }
+
+        Map<Long, Double> deltas = scaleUp(chain, nodes, (double) completed / total);
+        applyDeltas(deltas);
+        goalRevisionTracker.touchAll(deltas.keySet());
+        goal.setProgress(clamp(self.progress + deltas.get(goal.getId())));
+    }
+
+    /**
+     * Path of a goal, treating goals created before hierarchies as roots.
+     */
+    public static String pathOf(Goal goal) {
+        return goal.getPath() != null ? goal.getPath() : "/" + goal.getId() + "/";
+    }
+
+    /**
+     * Deltas for the last goal in the chain and every ancestor, nearest first.
+     */
+    private Map<Long, Double> scaleUp(List<Long> chain, Map<Long, Node> nodes, double delta) {
+        Map<Long, Double> deltas = new LinkedHashMap<>();
+        deltas.put(chain.get(chain.size() - 1), delta);
+        for (int i = chain.size() - 1; i > 0 && delta != 0; i--) {
+            Node current = nodes.get(chain.get(i));
+            Node parent = nodes.get(chain.get(i - 1));
+            if (current == null || parent == null || parent.childWeightTotal == 0) {
+                break;
+            }
+            delta = delta * current.weight / parent.childWeightTotal;
+            deltas.put(chain.get(i - 1), delta);
+        }
+        return deltas;
+    }
+
+    private void applyDeltas(Map<Long, Double> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, Double>> entries = new ArrayList<>(deltas.entrySet());
+        jdbcTemplate.batchUpdate("UPDATE goals SET progress = LEAST(1, GREATEST(0, progress + ?)) WHERE id = ?",
+                entries, entries.size(), (ps, entry) -> {
+                    ps.setDouble(1, entry.getValue());
+                    ps.setLong(2, entry.getKey());
+                });
+    }
+
+    private Map<Long, Node> lockChain(List<Long> chain) {
+        String placeholders = String.join(",", Collections.nCopies(chain.size(), "?"));
+        Map<Long, Node> nodes = new HashMap<>();
+        jdbcTemplate.query("SELECT id, weight, child_weight_total, progress FROM goals WHERE id IN (" + placeholders + ") " +
+                        "ORDER BY id FOR UPDATE",
+                rs -> {
+                    nodes.put(rs.getLong("id"), new Node(rs.getInt("weight"), rs.getInt("child_weight_total"),
+                            rs.getDouble("progress")));
+                },
+                chain.toArray());
+        return nodes;
+    }
+
+    /**
+     * Ids along a path, root first: "/12/45/" -> [12, 45].
+     */
+    private static List<Long> pathIds(String path) {
+        List<Long> ids = new ArrayList<>();
+        for (String part : path.split("/")) {
+            if (!part.isEmpty()) {
+                ids.add(Long.parseLong(part));
+            }
+        }
+        return ids;
+    }
+
+    private static double clamp(double progress) {
+        return Math.max(0.0, Math.min(1.0, progress));
+    }
+
+    private static final class Node {
+        final int weight;
+        int childWeightTotal;
+        final double progress;
+
+        Node(int weight, int childWeightTotal, double progress) {
+            this.weight = weight;
+            this.childWeightTotal = childWeightTotal;
+            this.progress = progress;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package org.goalapp.goal.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.goalapp.common.dto.NotificationEvent;
+import org.goalapp.common.kafka.KafkaTopics;
+import org.goalapp.common.outbox.OutboxPublisher;
+import org.goalapp.goal.dto.GoalCreateDto;
+import org.goalapp.goal.dto.GoalImportReport;
+import org.goalapp.goal.entities.Goal;
+import org.goalapp.goal.repository.GoalAssignmentBatchRepository;
+import org.goalapp.goal.repository.GoalAssignmentBatchRepository.PendingAssignment;
+import org.goalapp.goal.repository.GoalBatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports goals from CSV or NDJSON without holding the file in memory.
+ * Lines are parsed and validated one at a time; valid rows are buffered up to goal.import.chunk-size
+ * and written per chunk in one transaction: goals and assignments as JDBC batches, notifications
+ * as one outbox batch. A failing chunk only fails its own rows.
+ *
+ * CSV needs a header row; assignedUserIds holds ids separated by ';'. Records must fit on one line.
+ */
+@Service
+public class GoalImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GoalImportService.class);
+
+    public enum Format { CSV, NDJSON }
+
+    private final GoalService goalService;
+    private final RecurringGoalService recurringGoalService;
+    private final GoalBatchRepository goalBatchRepository;
+    private final GoalAssignmentBatchRepository goalAssignmentBatchRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter importedGoals;
+    private final Counter failedRows;
+
+    @Value("${goal.import.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${goal.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public GoalImportService(GoalService goalService,
+                             RecurringGoalService recurringGoalService,
+                             GoalBatchRepository goalBatchRepository,
+                             GoalAssignmentBatchRepository goalAssignmentBatchRepository,
+                             OutboxPublisher outboxPublisher,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.goalService = goalService;
+        this.recurringGoalService = recurringGoalService;
+        this.goalBatchRepository = goalBatchRepository;
+        this.goalAssignmentBatchRepository = goalAssignmentBatchRepository;
+        this.outboxPublisher = outboxPublisher;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder()
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .addModule(new JavaTimeModule())
+                .build();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.importedGoals = Counter.builder("goal.import.goals")
+                .description("Goals created through bulk import")
+                .register(meterRegistry);
+        this.failedRows = Counter.builder("goal.import.failed.rows")
+                .description("Bulk import rows rejected or rolled back")
+                .register(meterRegistry);
+    }
+
+    public GoalImportReport importGoals(InputStream input, Format format) throws IOException {
+        GoalImportReport report = new GoalImportReport();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            ObjectReader rowReader = format == Format.NDJSON ? objectMapper.readerFor(GoalCreateDto.class) : null;
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (rowReader == null) {
+                    rowReader = csvReader(line); // header row
+                    continue;
+                }
+                report.setTotalRows(report.getTotalRows() + 1);
+
+                ImportRow row = parse(rowReader, line, lineNumber, report);
+                if (row == null) {
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+        }
+        writeChunk(chunk, report);
+
+        logger.info("📥 Goal import finished: {} rows, {} goals imported, {} rows failed",
+                report.getTotalRows(), report.getImportedGoals(), report.getFailedRows());
+        return report;
+    }
+
+    private ObjectReader csvReader(String headerLine) {
+        CsvSchema.Builder schema = CsvSchema.builder().setArrayElementSeparator(";");
+        for (String column : headerLine.split(",")) {
+            schema.addColumn(column.trim());
+        }
+        return csvMapper.readerFor(GoalCreateDto.class).with(schema.build());
+    }
+
+    /**
+     * Parse and validate one line into an unsaved goal plus its assignees; null (and an error) if invalid.
+     */
+    private ImportRow parse(ObjectReader rowReader, String line, int lineNumber, GoalImportReport report) {
+        GoalCreateDto dto;
+        try {
+            dto = rowReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            reject(report, lineNumber, "Unreadable row: " + e.getOriginalMessage());
+            return null;
+        }
+
+        // Empty CSV cells arrive as null; fall back to the same defaults as POST /api/goals
+        if (dto.getType() == null) {
+            dto.setType("PERSONAL");
+        }
+        if (dto.getDifficulty() == null) {
+            dto.setDifficulty("MEDIUM");
+        }
+
+        Set<ConstraintViolation<GoalCreateDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            reject(report, lineNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+
+        if (dto.getParentId() != null) {
+            // Attaching locks and updates the parent chain; sub-goals go through POST /api/goals
+            reject(report, lineNumber, "Sub-goals cannot be imported");
+            return null;
+        }
+
+        Goal goal;
+        try {
+            goal = goalService.buildGoal(dto);
+        } catch (RuntimeException e) {
+            reject(report, lineNumber, e.getMessage());
+            return null;
+        }
+        if (goal.isRecurring()) {
+            recurringGoalService.initialize(goal);
+        }
+
+        List<Long> assignees = dto.getAssignedUserIds() != null && !dto.getAssignedUserIds().isEmpty()
+                ? dto.getAssignedUserIds().stream().distinct().collect(Collectors.toList())
+                : List.of(dto.getCreatedBy());
+        return new ImportRow(lineNumber, goal, assignees);
+    }
+
+    private void writeChunk(List<ImportRow> chunk, GoalImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                goalBatchRepository.insertGoals(chunk.stream().map(ImportRow::goal).toList());
+
+                List<PendingAssignment> assignments = new ArrayList<>();
+                List<NotificationEvent> notifications = new ArrayList<>();
+                for (ImportRow row : chunk) {
+                    Goal goal = row.goal();
+                    for (Long userId : row.assignees()) {
+                        assignments.add(new PendingAssignment(goal.getId(), userId,
+                                goalService.firstOccurrence(goal), goalService.firstOccurrenceDueAt(goal)));
+                    }
+                    notifications.addAll(goalService.assignmentNotifications(goal, row.assignees()));
+                }
+                goalAssignmentBatchRepository.insertPendingAssignments(assignments);
+                outboxPublisher.publishAll(KafkaTopics.NOTIFICATION, notifications, NotificationEvent::getUserId);
+            });
+            report.setImportedGoals(report.getImportedGoals() + chunk.size());
+            importedGoals.increment(chunk.size());
+        } catch (RuntimeException e) {
+            logger.error("❌ Goal import chunk of {} rows failed", chunk.size(), e);
+            for (ImportRow row : chunk) {
+                reject(report, row.line(), "Not imported, its chunk failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void reject(GoalImportReport report, int line, String message) {
+        report.setFailedRows(report.getFailedRows() + 1);
+        failedRows.increment();
+        if (report.getErrors().size() < maxReportedErrors) {
+            report.getErrors().add(new GoalImportReport.RowError(line, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    private record ImportRow(int line, Goal goal, List<Long> assignees) {
+    }
+}
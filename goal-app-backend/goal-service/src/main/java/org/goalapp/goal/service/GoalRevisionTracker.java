@@ -0,0 +1,87 @@
+package org.goalapp.goal.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.goalapp.goal.entities.Goal;
+import org.goalapp.goal.entities.GoalAssignment;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Records that a goal or its assignments changed: bumps the goal's revision (used for ETags)
+ * and evicts the goal and its assignment collection from the second-level cache.
+ *
+ * The bump is plain JDBC on purpose - a JPQL bulk update would make Hibernate drop the whole
+ * goals cache region instead of the one entry.
+ */
+@Component
+public class GoalRevisionTracker {
+
+    private static final String ASSIGNMENTS_ROLE = Goal.class.getName() + ".assignments";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public void touch(Long goalId) {
+        touchAll(List.of(goalId));
+    }
+
+    public void touchAll(Collection<Long> goalIds) {
+        if (goalIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("UPDATE goals SET revision = revision + 1 WHERE id = ?", goalIds, goalIds.size(),
+                (ps, goalId) -> ps.setLong(1, goalId));
+
+        evict(goalIds);
+        afterCommit(() -> evict(goalIds));
+    }
+
+    /**
+     * Drop goals from the second-level cache without bumping their revision (e.g. after they were archived).
+     */
+    public void evict(Collection<Long> goalIds) {
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        for (Long goalId : goalIds) {
+            cache.evictEntityData(Goal.class, goalId);
+            cache.evictCollectionData(ASSIGNMENTS_ROLE, goalId);
+        }
+    }
+
+    /**
+     * Drop assignment rows changed over JDBC from the second-level cache.
+     */
+    public void evictAssignments(Collection<Long> assignmentIds) {
+        Runnable evict = () -> {
+            org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+            for (Long assignmentId : assignmentIds) {
+                cache.evictEntityData(GoalAssignment.class, assignmentId);
+            }
+        };
+        evict.run();
+        afterCommit(evict);
+    }
+
+    /**
+     * Readers may re-cache the old rows before we commit; evict again once the change is visible.
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
@@ -1,26 +1,53 @@
 package org.goalapp.goal.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.goalapp.common.dto.GoalLifecycleEvent;
 import org.goalapp.common.dto.NotificationEvent;
-import org.goalapp.goal.client.UserClient;
+import org.goalapp.common.kafka.KafkaTopics;
+import org.goalapp.common.outbox.OutboxPublisher;
+import org.goalapp.common.stream.JdbcJsonStreamer;
+import org.goalapp.goal.dto.BulkCompletionRequest;
+import org.goalapp.goal.dto.BulkCompletionResult;
 import org.goalapp.goal.dto.GoalCreateDto;
 import org.goalapp.goal.dto.GoalResponseDto;
-import org.goalapp.goal.dto.UserDto;
 import org.goalapp.goal.entities.Goal;
 import org.goalapp.goal.entities.GoalAssignment;
+import org.goalapp.goal.event.GoalCompletedEvent;
 import org.goalapp.goal.kafka.ChallengeEventConsumer;
+import org.goalapp.goal.repository.GoalAssignmentBatchRepository;
 import org.goalapp.goal.repository.GoalRepository;
+import org.goalapp.goal.repository.GoalRevision;
 import org.goalapp.goal.repository.GoalAssignmentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,6 +55,14 @@ public class GoalService {
 
     private static final Logger logger = LoggerFactory.getLogger(GoalService.class);
 
+    private static final String STREAM_GOALS_BY_USER_SQL =
+            "SELECT g.id, g.title, g.description, g.created_by, g.type, g.difficulty, g.deadline, g.created_at, " +
+            "g.recurrence, g.recurrence_interval, g.recurrence_ends_at, g.parent_id, g.weight, g.progress, " +
+            "a.user_id, a.status, a.completed_at, a.last_updated, a.occurrence, a.due_at " +
+            "FROM goals g JOIN goal_assignments a ON a.goal_id = g.id " +
+            "WHERE g.id IN (SELECT goal_id FROM goal_assignments WHERE user_id = ?) " +
+            "ORDER BY g.created_at DESC, g.id, a.id";
+
     @Autowired
     private GoalRepository goalRepository;
 
@@ -35,10 +70,31 @@ public class GoalService {
     private GoalAssignmentRepository goalAssignmentRepository;
 
     @Autowired
-    private KafkaTemplate<String, NotificationEvent> kafkaTemplate;
+    private OutboxPublisher outboxPublisher;
+
+    @Autowired
+    private GoalAssignmentBatchRepository goalAssignmentBatchRepository;
+
+    @Autowired
+    private RecurringGoalService recurringGoalService;
+
+    @Autowired
+    private GoalRevisionTracker goalRevisionTracker;
 
     @Autowired
-    private UserClient userClient;
+    private GoalHierarchyService goalHierarchyService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcJsonStreamer jdbcJsonStreamer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${goal.completion.bulk-max-items:500}")
+    private int bulkCompletionMaxItems;
 
     /**
      * Core method to create Goal entity and save it.
@@ -56,13 +112,7 @@ public class GoalService {
                 goalCreateDto.getCreatedBy(), goalCreateDto.getAssignedUserIds());
 
         try {
-            Goal goal = new Goal();
-            goal.setTitle(goalCreateDto.getTitle());
-            goal.setDescription(goalCreateDto.getDescription());
-            goal.setCreatedBy(goalCreateDto.getCreatedBy());
-            goal.setType(Goal.GoalType.valueOf(goalCreateDto.getType().toUpperCase()));
-            goal.setDifficulty(Goal.Difficulty.valueOf(goalCreateDto.getDifficulty().toUpperCase()));
-            goal.setDeadline(goalCreateDto.getDeadline());
+            Goal goal = buildGoal(goalCreateDto);
 
             // ✅ Log before saving
             log.info("💾 Saving goal entity: {}", goal);
@@ -81,6 +131,10 @@ public class GoalService {
             log.info("👥 Creating goal assignments for {} users",
                     goalCreateDto.getAssignedUserIds() != null ? goalCreateDto.getAssignedUserIds().size() : 0);
 
+            if (savedGoal.isRecurring()) {
+                recurringGoalService.initialize(savedGoal);
+            }
+            goalHierarchyService.attach(savedGoal);
             createGoalAssignments(savedGoal, goalCreateDto);
 
             log.info("✅ Goal creation completed successfully with ID: {}", savedGoal.getId());
@@ -92,6 +146,43 @@ public class GoalService {
         }
     }
 
+    /**
+     * Map the request onto a new, unsaved Goal. Throws on unknown enum values or bad recurrence settings.
+     */
+    Goal buildGoal(GoalCreateDto goalCreateDto) {
+        Goal goal = new Goal();
+        goal.setTitle(goalCreateDto.getTitle());
+        goal.setDescription(goalCreateDto.getDescription());
+        goal.setCreatedBy(goalCreateDto.getCreatedBy());
+        goal.setType(Goal.GoalType.valueOf(goalCreateDto.getType().toUpperCase()));
+        goal.setDifficulty(Goal.Difficulty.valueOf(goalCreateDto.getDifficulty().toUpperCase()));
+        goal.setDeadline(goalCreateDto.getDeadline());
+        applyRecurrence(goal, goalCreateDto);
+        Integer weight = goalCreateDto.getWeight() != null ? goalCreateDto.getWeight() : 1;
+        if (weight < 1) {
+            throw new RuntimeException("Goal weight must be at least 1");
+        }
+        goal.setWeight(weight);
+        goal.setParentId(goalCreateDto.getParentId());
+        return goal;
+    }
+
+    private void applyRecurrence(Goal goal, GoalCreateDto goalCreateDto) {
+        if (goalCreateDto.getRecurrence() == null || goalCreateDto.getRecurrence().isBlank()) {
+            return;
+        }
+        if (goalCreateDto.getDeadline() == null) {
+            throw new RuntimeException("Recurring goals need a deadline for their first occurrence");
+        }
+        Integer interval = goalCreateDto.getRecurrenceInterval() != null ? goalCreateDto.getRecurrenceInterval() : 1;
+        if (interval < 1) {
+            throw new RuntimeException("Recurrence interval must be at least 1");
+        }
+        goal.setRecurrence(Goal.Recurrence.valueOf(goalCreateDto.getRecurrence().toUpperCase()));
+        goal.setRecurrenceInterval(interval);
+        goal.setRecurrenceEndsAt(goalCreateDto.getRecurrenceEndsAt());
+    }
+
     /**
      * Public API method to create goal and return DTO.
      * Used by REST controllers.
@@ -99,7 +190,8 @@ public class GoalService {
     @Transactional
     public GoalResponseDto createGoalDto(@Valid GoalCreateDto goalCreateDto) {
         Goal savedGoal = createGoal(goalCreateDto);
-        return convertToDto(savedGoal);
+        // Assignments were batch-inserted over JDBC, so the new entity's collection is still empty
+        return convertToDto(savedGoal, goalAssignmentRepository.findByGoalId(savedGoal.getId()));
     }
 
     private void createGoalAssignments(Goal savedGoal, GoalCreateDto goalCreateDto) {
@@ -109,30 +201,56 @@ public class GoalService {
                 savedGoal.getId(), userIds);
 
         if (userIds != null && !userIds.isEmpty()) {
-            for (Long userId : userIds) {
-                log.info("👤 Creating assignment for user: {} to goal: {}", userId, savedGoal.getId());
-                createGoalAssignment(savedGoal.getId(), userId);
-
-                // Send notification to assigned users (except creator)
-                if (!userId.equals(goalCreateDto.getCreatedBy())) {
-                    log.info("📧 Sending notification to user: {} for goal: {}", userId, savedGoal.getId());
-                    sendGoalAssignmentNotification(userId, savedGoal);
-                }
-            }
-            log.info("✅ Created {} assignments for goal: {}", userIds.size(), savedGoal.getId());
+            List<Long> assignees = userIds.stream()
+                    .distinct()
+                    .collect(Collectors.toList());
+            goalAssignmentBatchRepository.insertPendingAssignments(savedGoal.getId(), assignees,
+                    firstOccurrence(savedGoal), firstOccurrenceDueAt(savedGoal));
+
+            // Notify assigned users (except creator); delivered by the outbox relay after commit
+            outboxPublisher.publishAll(KafkaTopics.NOTIFICATION, assignmentNotifications(savedGoal, assignees),
+                    NotificationEvent::getUserId);
+            log.info("✅ Created {} assignments for goal: {}", assignees.size(), savedGoal.getId());
         } else {
             log.warn("⚠️ No assigned users found, assigning to creator: {}", goalCreateDto.getCreatedBy());
-            createGoalAssignment(savedGoal.getId(), goalCreateDto.getCreatedBy());
+            createGoalAssignment(savedGoal, goalCreateDto.getCreatedBy());
         }
     }
 
-    private void createGoalAssignment(Long goalId, Long userId) {
+    /**
+     * GOAL_ASSIGNED notifications for everyone assigned except the creator.
+     */
+    List<NotificationEvent> assignmentNotifications(Goal savedGoal, List<Long> assignees) {
+        return assignees.stream()
+                .filter(userId -> !userId.equals(savedGoal.getCreatedBy()))
+                .map(userId -> new NotificationEvent(
+                        userId,
+                        "GOAL_ASSIGNED",
+                        "You have been assigned a new goal: " + savedGoal.getTitle(),
+                        savedGoal.getCreatedBy(),  // sourceUserId - who created/assigned the goal
+                        savedGoal.getId()          // relatedId - the goal that was assigned
+                ))
+                .collect(Collectors.toList());
+    }
+
+    Integer firstOccurrence(Goal goal) {
+        return goal.isRecurring() ? 0 : null;
+    }
+
+    LocalDateTime firstOccurrenceDueAt(Goal goal) {
+        return goal.isRecurring() ? goal.getDeadline() : null;
+    }
+
+    private void createGoalAssignment(Goal goal, Long userId) {
+        Long goalId = goal.getId();
         log.info("💼 Creating assignment: goalId={}, userId={}", goalId, userId);
 
         GoalAssignment assignment = new GoalAssignment();
         assignment.setGoalId(goalId);
         assignment.setUserId(userId);
         assignment.setStatus(GoalAssignment.Status.PENDING);
+        assignment.setOccurrence(firstOccurrence(goal));
+        assignment.setDueAt(firstOccurrenceDueAt(goal));
 
         GoalAssignment savedAssignment = goalAssignmentRepository.save(assignment);
 
@@ -145,51 +263,127 @@ public class GoalService {
     }
 
     /**
-     * Helper method to send goal assignment notification
+     * ETag for a single goal, read from the revision column only.
      */
-    private void sendGoalAssignmentNotification(Long userId, Goal goal) {
+    public Optional<String> getGoalETag(Long id) {
+        return goalRepository.findRevisionById(id).map(revision -> "g" + id + "-r" + revision);
+    }
+
+    public String getGoalsByUserIdETag(Long userId) {
+        return "u" + userId + "-" + fingerprint(goalRepository.findRevisionsByUserId(userId));
+    }
+
+    public String getGoalsByCreatorETag(Long creatorId) {
+        return "c" + creatorId + "-" + fingerprint(goalRepository.findRevisionsByCreatedBy(creatorId));
+    }
+
+    public String searchGoalsETag(String query) {
+        return "s-" + fingerprint(goalRepository.findRevisionsBySearch(query));
+    }
+
+    private String fingerprint(List<GoalRevision> revisions) {
         try {
-            NotificationEvent notification = new NotificationEvent(
-                    userId,
-                    "GOAL_ASSIGNED",
-                    "You have been assigned a new goal: " + goal.getTitle(),
-                    goal.getCreatedBy(),  // sourceUserId - who created/assigned the goal
-                    goal.getId()          // relatedId - the goal that was assigned
-            );
-            kafkaTemplate.send("notification-topic", notification);
-            logger.debug("Sent goal assignment notification to user: {}", userId);
-        } catch (Exception e) {
-            logger.error("Failed to send goal assignment notification to user: {}", userId, e);
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = ByteBuffer.allocate(16);
+            for (GoalRevision revision : revisions) {
+                buffer.clear();
+                buffer.putLong(revision.getId()).putLong(revision.getRevision());
+                digest.update(buffer.array());
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
 
+    @Transactional(readOnly = true)
     public Optional<GoalResponseDto> getGoalById(Long id) {
         return goalRepository.findById(id).map(this::convertToDto);
     }
 
+    @Transactional(readOnly = true)
     public List<GoalResponseDto> getGoalsByUserId(Long userId) {
         return goalRepository.findGoalsByUserId(userId).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Same goals and order as getGoalsByUserId, written to the stream straight from a JDBC cursor.
+     * Rows come goal by goal with their assignments, so only one goal is in memory at a time.
+     */
+    public void streamGoalsByUserId(Long userId, OutputStream out) throws IOException {
+        jdbcJsonStreamer.streamGrouped(out, STREAM_GOALS_BY_USER_SQL, new JdbcJsonStreamer.RowEmitter() {
+            private GoalResponseDto current;
+
+            @Override
+            public void onRow(ResultSet rs, Consumer<Object> emit) throws SQLException {
+                long goalId = rs.getLong("id");
+                if (current == null || current.getId() != goalId) {
+                    if (current != null) {
+                        emit.accept(current);
+                    }
+                    current = mapGoalRow(rs);
+                }
+                current.getAssignments().add(mapAssignmentRow(rs));
+            }
+
+            @Override
+            public void onEnd(Consumer<Object> emit) {
+                if (current != null) {
+                    emit.accept(current);
+                }
+            }
+        }, userId);
+    }
+
+    @Transactional(readOnly = true)
     public List<GoalResponseDto> getGoalsByCreator(Long creatorId) {
         return goalRepository.findByCreatedBy(creatorId).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<GoalResponseDto> searchGoals(String query) {
         return goalRepository.searchGoals(query).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * The goal and all of its descendants, parents before children. One range scan on the
+     * materialized path plus one batched assignment lookup, however deep the tree is.
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<GoalResponseDto>> getSubtree(Long goalId) {
+        Optional<Goal> root = goalRepository.findById(goalId);
+        if (root.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Goal> goals = root.get().getPath() != null
+                ? goalRepository.findByPathStartingWithOrderByPath(root.get().getPath())
+                : List.of(root.get());
+        Map<Long, List<GoalAssignment>> assignments = goalAssignmentRepository
+                .findByGoalIdIn(goals.stream().map(Goal::getId).toList()).stream()
+                .collect(Collectors.groupingBy(GoalAssignment::getGoalId));
+        return Optional.of(goals.stream()
+                .map(goal -> convertToDto(goal, assignments.getOrDefault(goal.getId(), List.of())))
+                .collect(Collectors.toList()));
+    }
+
     @Transactional
     public GoalResponseDto completeGoal(Long goalId, Long userId) {
         logger.info("Completing goal {} for user {}", goalId, userId);
 
-        Optional<GoalAssignment> assignmentOpt = goalAssignmentRepository.findByGoalIdAndUserId(goalId, userId);
+        // Get goal details
+        Goal goal = goalRepository.findById(goalId)
+                .orElseThrow(() -> new RuntimeException("Goal not found"));
+
+        // Recurring goals complete the currently open occurrence
+        Optional<GoalAssignment> assignmentOpt = goal.isRecurring()
+                ? recurringGoalService.findCurrentOccurrence(goal, userId)
+                : goalAssignmentRepository.findByGoalIdAndUserIdAndOccurrenceIsNull(goalId, userId);
 
         if (assignmentOpt.isEmpty()) {
             throw new RuntimeException("Goal assignment not found for user " + userId + " and goal " + goalId);
@@ -199,78 +393,152 @@ public class GoalService {
         if (assignment.getStatus() == GoalAssignment.Status.COMPLETED) {
             throw new RuntimeException("Goal already completed");
         }
+        if (assignment.getStatus() == GoalAssignment.Status.MISSED) {
+            // Penalty already applied; completing now would award points for the same assignment
+            throw new RuntimeException("Goal already missed");
+        }
 
         // Update assignment status
         assignment.setStatus(GoalAssignment.Status.COMPLETED);
         assignment.setCompletedAt(LocalDateTime.now());
         assignment.setLastUpdated(LocalDateTime.now());
         goalAssignmentRepository.save(assignment);
-
-        // Get goal details
-        Goal goal = goalRepository.findById(goalId)
-                .orElseThrow(() -> new RuntimeException("Goal not found"));
+        goalRevisionTracker.touch(goalId);
+        goalHierarchyService.onAssignmentsCompleted(goal, 1);
 
         // Send notification to points service for point calculation
-        sendPointsNotification(userId, goal, "GOAL_COMPLETED");
+        sendPointsNotification(assignment, goal, GoalLifecycleEvent.GOAL_COMPLETED);
 
-        // Notify other assigned users about completion
-        notifyOtherAssignedUsers(goalId, userId, goal);
+        // Username lookup and notifications to other assignees run off the outbox, after commit
+        outboxPublisher.publish(KafkaTopics.GOAL_COMPLETED, userId,
+                new GoalCompletedEvent(goalId, goal.getTitle(), userId, assignment.getCompletedAt()));
 
         logger.info("Successfully completed goal {} for user {}", goalId, userId);
         return convertToDto(goal);
     }
 
     /**
-     * Helper method to send points notification
+     * Complete many (goal, user) pairs in one transaction: one lookup query for one-off goals,
+     * one locking SELECT and one UPDATE for all assignments, one outbox batch for points events
+     * and a single fan-out event after commit. Every item gets its own result.
      */
-    private void sendPointsNotification(Long userId, Goal goal, String eventType) {
-        try {
-            NotificationEvent pointsEvent = new NotificationEvent(
-                    userId,
-                    eventType,
-                    eventType.equals("GOAL_COMPLETED") ? "Goal completed: " + goal.getTitle() : "Goal missed: " + goal.getTitle(),
-                    userId,        // sourceUserId - the user who completed/missed the goal
-                    goal.getId()   // relatedId - the goal
-            );
-            kafkaTemplate.send("points-topic", pointsEvent);
-        } catch (Exception e) {
-            logger.error("Failed to send points notification for user: {}", userId, e);
+    @Transactional
+    public List<BulkCompletionResult> completeGoals(List<BulkCompletionRequest.Item> items) {
+        if (items.size() > bulkCompletionMaxItems) {
+            throw new RuntimeException("At most " + bulkCompletionMaxItems + " items per bulk completion");
         }
-    }
+        LocalDateTime now = LocalDateTime.now();
 
-    /**
-     * Helper method to notify other assigned users
-     */
-    private void notifyOtherAssignedUsers(Long goalId, Long completingUserId, Goal goal) {
-        try {
-            List<GoalAssignment> otherAssignments = goalAssignmentRepository.findByGoalId(goalId);
-            
-            // Get the username of the user who completed the goal
-            String completingUsername = "Your friend "; // Default fallback
-            try {
-                UserDto completingUser = userClient.getUserById(completingUserId);
-                if (completingUser != null && completingUser.getUsername() != null) {
-                    completingUsername = completingUser.getUsername();
-                }
-            } catch (Exception e) {
-                logger.warn("Failed to fetch username for user {}: {}", completingUserId, e.getMessage());
+        Map<Long, Goal> goals = goalRepository.findAllById(items.stream()
+                        .map(BulkCompletionRequest.Item::getGoalId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Goal::getId, Function.identity()));
+
+        Set<Long> oneOffGoalIds = goals.values().stream()
+                .filter(goal -> !goal.isRecurring())
+                .map(Goal::getId)
+                .collect(Collectors.toSet());
+        Set<Long> userIds = items.stream().map(BulkCompletionRequest.Item::getUserId).collect(Collectors.toSet());
+        Map<List<Long>, GoalAssignment> oneOffAssignments = oneOffGoalIds.isEmpty() ? Map.of()
+                : goalAssignmentRepository.findByGoalIdInAndUserIdInAndOccurrenceIsNull(oneOffGoalIds, userIds).stream()
+                        .collect(Collectors.toMap(a -> List.of(a.getGoalId(), a.getUserId()), Function.identity(), (a, b) -> a));
+
+        List<BulkCompletionResult> results = new ArrayList<>(items.size());
+        Map<Long, BulkCompletionResult> pending = new LinkedHashMap<>(); // by assignment id
+        Map<Long, GoalAssignment> pendingAssignments = new HashMap<>();
+
+        for (BulkCompletionRequest.Item item : items) {
+            BulkCompletionResult result = new BulkCompletionResult(item.getGoalId(), item.getUserId(), BulkCompletionResult.NOT_FOUND);
+            results.add(result);
+
+            Goal goal = goals.get(item.getGoalId());
+            if (goal == null) {
+                continue;
             }
-            
-            for (GoalAssignment otherAssignment : otherAssignments) {
-                if (!otherAssignment.getUserId().equals(completingUserId)) {
-                    NotificationEvent notification = new NotificationEvent(
-                            otherAssignment.getUserId(),
-                            "GOAL_COMPLETED_BY_FRIEND",
-                            completingUsername + " completed the goal: " + goal.getTitle(),
-                            completingUserId,  // sourceUserId - who completed the goal
-                            goalId             // relatedId - the goal that was completed
-                    );
-                    kafkaTemplate.send("notification-topic", notification);
-                }
+            // Recurring goals complete the currently open occurrence
+            Optional<GoalAssignment> assignmentOpt = goal.isRecurring()
+                    ? recurringGoalService.findCurrentOccurrence(goal, item.getUserId())
+                    : Optional.ofNullable(oneOffAssignments.get(List.of(item.getGoalId(), item.getUserId())));
+            if (assignmentOpt.isEmpty()) {
+                continue;
             }
-        } catch (Exception e) {
-            logger.error("Failed to notify other users about goal completion", e);
+            GoalAssignment assignment = assignmentOpt.get();
+            result.setOccurrence(assignment.getOccurrence());
+            if (assignment.getStatus() == GoalAssignment.Status.COMPLETED || pending.containsKey(assignment.getId())) {
+                result.setStatus(BulkCompletionResult.ALREADY_COMPLETED);
+                result.setCompletedAt(assignment.getCompletedAt());
+                continue;
+            }
+            if (assignment.getStatus() == GoalAssignment.Status.MISSED) {
+                result.setStatus(BulkCompletionResult.MISSED);
+                continue;
+            }
+            pending.put(assignment.getId(), result);
+            pendingAssignments.put(assignment.getId(), assignment);
+        }
+
+        // Lock first so the UPDATE changes exactly the rows we report as completed
+        List<Long> completableIds = pending.isEmpty() ? List.of()
+                : goalAssignmentBatchRepository.lockCompletableIds(pending.keySet());
+        goalAssignmentBatchRepository.completeAssignments(completableIds, now);
+
+        List<GoalLifecycleEvent> pointsEvents = new ArrayList<>(completableIds.size());
+        List<GoalCompletedEvent> completions = new ArrayList<>(completableIds.size());
+        Set<Long> completedIds = new HashSet<>(completableIds);
+        Map<Long, GoalAssignment.Status> lostStatuses = goalAssignmentBatchRepository.findStatuses(
+                pending.keySet().stream().filter(id -> !completedIds.contains(id)).toList());
+        pending.forEach((assignmentId, result) -> {
+            if (!completedIds.contains(assignmentId)) {
+                // Completed or missed concurrently
+                result.setStatus(lostStatuses.get(assignmentId) == GoalAssignment.Status.MISSED
+                        ? BulkCompletionResult.MISSED : BulkCompletionResult.ALREADY_COMPLETED);
+                return;
+            }
+            result.setStatus(BulkCompletionResult.COMPLETED);
+            result.setCompletedAt(now);
+            Goal goal = goals.get(result.getGoalId());
+            pointsEvents.add(toLifecycleEvent(pendingAssignments.get(assignmentId), goal, GoalLifecycleEvent.GOAL_COMPLETED));
+            completions.add(new GoalCompletedEvent(goal.getId(), goal.getTitle(), result.getUserId(), now));
+        });
+
+        if (!completions.isEmpty()) {
+            // Managed copies are stale after the JDBC update; keep them out of the flush
+            completableIds.forEach(id -> entityManager.detach(pendingAssignments.get(id)));
+            goalRevisionTracker.evictAssignments(completableIds);
+            goalRevisionTracker.touchAll(completions.stream().map(GoalCompletedEvent::getGoalId).collect(Collectors.toSet()));
+            // Goal ids ascending, so overlapping ancestor chains are always locked in the same order
+            completions.stream()
+                    .collect(Collectors.groupingBy(GoalCompletedEvent::getGoalId, TreeMap::new, Collectors.counting()))
+                    .forEach((goalId, count) -> goalHierarchyService.onAssignmentsCompleted(goals.get(goalId), count.intValue()));
+            outboxPublisher.publishAll(KafkaTopics.POINTS, pointsEvents, GoalLifecycleEvent::getUserId);
+            outboxPublisher.publishAll(KafkaTopics.GOAL_COMPLETED, completions, GoalCompletedEvent::getCompletingUserId);
         }
+
+        logger.info("Bulk completion: {} of {} items completed", completions.size(), items.size());
+        return results;
+    }
+
+    /**
+     * Helper method to publish a lifecycle event for the points service
+     */
+    private void sendPointsNotification(GoalAssignment assignment, Goal goal, String eventType) {
+        outboxPublisher.publish(KafkaTopics.POINTS, assignment.getUserId(), toLifecycleEvent(assignment, goal, eventType));
+    }
+
+    private GoalLifecycleEvent toLifecycleEvent(GoalAssignment assignment, Goal goal, String eventType) {
+        GoalLifecycleEvent event = new GoalLifecycleEvent(
+                goal.getId(),
+                assignment.getUserId(),
+                eventType,
+                goal.getDifficulty().toString(),
+                goal.getTitle(),
+                goal.getType().toString()
+        );
+        // An assignment is completed or missed at most once, so this identifies the award
+        event.setEventId("assignment-" + assignment.getId() + "-" + eventType);
+        // Lets the points rules reward early completion
+        event.setDeadline(assignment.getDueAt() != null ? assignment.getDueAt() : goal.getDeadline());
+        return event;
     }
 
     @Transactional
@@ -278,34 +546,95 @@ public class GoalService {
         logger.info("Starting to mark missed goals");
 
         LocalDateTime now = LocalDateTime.now();
-        List<Goal> expiredGoals = goalRepository.findByDeadlineBefore(now);
+        List<Goal> expiredGoals = goalRepository.findByDeadlineBeforeAndRecurrenceIsNull(now);
 
-        int missedCount = 0;
+        List<GoalAssignment> candidates = new ArrayList<>();
+        if (!expiredGoals.isEmpty()) {
+            goalAssignmentRepository.findByGoalIdIn(expiredGoals.stream().map(Goal::getId).toList()).stream()
+                    .filter(assignment -> assignment.getStatus() == GoalAssignment.Status.PENDING)
+                    .forEach(candidates::add);
+        }
 
-        for (Goal goal : expiredGoals) {
-            List<GoalAssignment> assignments = goalAssignmentRepository.findByGoalId(goal.getId());
+        // Recurring goals: make sure every occurrence that is already due has rows,
+        // then only look at materialized occurrences past their due date
+        recurringGoalService.materializeThrough(now);
+        candidates.addAll(goalAssignmentRepository.findByStatusAndDueAtBefore(GoalAssignment.Status.PENDING, now));
+
+        // Versioned compare-and-set per row: an assignment completed since we read it is skipped
+        // instead of being penalized, and one conflict does not roll back the whole sweep
+        List<GoalAssignment> missed = goalAssignmentBatchRepository.markMissed(candidates, now);
+        int conflicts = candidates.size() - missed.size();
+        if (conflicts > 0) {
+            meterRegistry.counter("goal.optimistic.conflicts", "operation", "missed-sweep", "outcome", "skipped")
+                    .increment(conflicts);
+            logger.info("Skipped {} assignments changed concurrently during the missed sweep", conflicts);
+        }
+        if (missed.isEmpty()) {
+            logger.info("Marked 0 goal assignments as missed");
+            return;
+        }
 
-            for (GoalAssignment assignment : assignments) {
-                if (assignment.getStatus() == GoalAssignment.Status.PENDING) {
-                    assignment.setStatus(GoalAssignment.Status.MISSED);
-                    assignment.setLastUpdated(now);
-                    goalAssignmentRepository.save(assignment);
+        // Managed copies are stale after the JDBC update; keep them out of the flush
+        candidates.forEach(entityManager::detach);
+        goalRevisionTracker.evictAssignments(missed.stream().map(GoalAssignment::getId).toList());
 
-                    // Send notification to points service for penalty
-                    sendPointsNotification(assignment.getUserId(), goal, "GOAL_MISSED");
+        Set<Long> touchedGoalIds = missed.stream().map(GoalAssignment::getGoalId).collect(Collectors.toSet());
+        Map<Long, Goal> goals = goalRepository.findAllById(touchedGoalIds).stream()
+                .collect(Collectors.toMap(Goal::getId, Function.identity()));
 
-                    missedCount++;
-                }
-            }
+        // Send notifications to points service for penalties
+        outboxPublisher.publishAll(KafkaTopics.POINTS, missed.stream()
+                        .map(assignment -> toLifecycleEvent(assignment, goals.get(assignment.getGoalId()),
+                                GoalLifecycleEvent.GOAL_MISSED))
+                        .toList(),
+                GoalLifecycleEvent::getUserId);
+        goalRevisionTracker.touchAll(touchedGoalIds);
+
+        logger.info("Marked {} goal assignments as missed", missed.size());
+    }
+
+    private GoalResponseDto mapGoalRow(ResultSet rs) throws SQLException {
+        GoalResponseDto dto = new GoalResponseDto();
+        dto.setId(rs.getLong("id"));
+        dto.setTitle(rs.getString("title"));
+        dto.setDescription(rs.getString("description"));
+        dto.setCreatedBy(rs.getObject("created_by", Long.class));
+        dto.setType(rs.getString("type"));
+        dto.setDifficulty(rs.getString("difficulty"));
+        dto.setDeadline(rs.getObject("deadline", LocalDateTime.class));
+        dto.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        dto.setRecurrence(rs.getString("recurrence"));
+        if (dto.getRecurrence() != null) {
+            dto.setRecurrenceInterval(rs.getObject("recurrence_interval", Integer.class));
+            dto.setRecurrenceEndsAt(rs.getObject("recurrence_ends_at", LocalDateTime.class));
         }
+        dto.setParentId(rs.getObject("parent_id", Long.class));
+        dto.setWeight(rs.getInt("weight"));
+        dto.setProgress(rs.getDouble("progress"));
+        dto.setAssignments(new ArrayList<>());
+        return dto;
+    }
 
-        logger.info("Marked {} goal assignments as missed", missedCount);
+    private GoalResponseDto.AssignmentDto mapAssignmentRow(ResultSet rs) throws SQLException {
+        GoalResponseDto.AssignmentDto dto = new GoalResponseDto.AssignmentDto();
+        dto.setUserId(rs.getLong("user_id"));
+        dto.setStatus(rs.getString("status"));
+        dto.setCompletedAt(rs.getObject("completed_at", LocalDateTime.class));
+        dto.setLastUpdated(rs.getObject("last_updated", LocalDateTime.class));
+        dto.setOccurrence(rs.getObject("occurrence", Integer.class));
+        dto.setDueAt(rs.getObject("due_at", LocalDateTime.class));
+        return dto;
     }
 
     /**
      * Convert Goal entity to DTO
      */
     private GoalResponseDto convertToDto(Goal goal) {
+        // Served from the second-level collection cache when enabled
+        return convertToDto(goal, goal.getAssignments());
+    }
+
+    private GoalResponseDto convertToDto(Goal goal, List<GoalAssignment> assignments) {
         GoalResponseDto dto = new GoalResponseDto();
         dto.setId(goal.getId());
         dto.setTitle(goal.getTitle());
@@ -315,9 +644,16 @@ public class GoalService {
         dto.setDifficulty(goal.getDifficulty().toString());
         dto.setDeadline(goal.getDeadline());
         dto.setCreatedAt(goal.getCreatedAt());
+        if (goal.isRecurring()) {
+            dto.setRecurrence(goal.getRecurrence().toString());
+            dto.setRecurrenceInterval(goal.getRecurrenceInterval());
+            dto.setRecurrenceEndsAt(goal.getRecurrenceEndsAt());
+        }
+        dto.setParentId(goal.getParentId());
+        dto.setWeight(goal.getWeight());
+        dto.setProgress(goal.getProgress());
 
         // Add assignment details
-        List<GoalAssignment> assignments = goalAssignmentRepository.findByGoalId(goal.getId());
         dto.setAssignments(assignments.stream()
                 .map(this::convertAssignmentToDto)
                 .collect(Collectors.toList()));
@@ -334,6 +670,8 @@ public class GoalService {
         dto.setStatus(assignment.getStatus().toString());
         dto.setCompletedAt(assignment.getCompletedAt());
         dto.setLastUpdated(assignment.getLastUpdated());
+        dto.setOccurrence(assignment.getOccurrence());
+        dto.setDueAt(assignment.getDueAt());
         return dto;
     }
 }
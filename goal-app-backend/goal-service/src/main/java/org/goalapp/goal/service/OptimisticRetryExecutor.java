@@ -0,0 +1,80 @@
+package org.goalapp.goal.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work in its own transaction and re-runs it when a versioned write loses
+ * to a concurrent one. Each attempt starts from fresh reads, so the retry sees the winner's state
+ * (e.g. a completion retried after the missed sweep finds the assignment MISSED).
+ *
+ * Conflicts are counted as goal.optimistic.conflicts{operation, outcome=retried|exhausted}.
+ */
+@Component
+public class OptimisticRetryExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetryExecutor.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${goal.concurrency.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${goal.concurrency.retry-backoff-ms:20}")
+    private long backoffMs;
+
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T execute(String operation, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // The conflict would surface at the outer commit, where we can no longer retry
+            throw new IllegalStateException("Optimistic retry must start outside a transaction: " + operation);
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                boolean exhausted = attempt >= maxAttempts;
+                meterRegistry.counter("goal.optimistic.conflicts",
+                        "operation", operation, "outcome", exhausted ? "exhausted" : "retried").increment();
+                if (exhausted) {
+                    logger.warn("⚠️ {} still conflicting after {} attempts", operation, attempt);
+                    throw e;
+                }
+                logger.debug("{} lost an optimistic lock on attempt {}, retrying", operation, attempt);
+                backOff(attempt);
+            }
+        }
+    }
+
+    public void run(String operation, Runnable work) {
+        execute(operation, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private void backOff(int attempt) {
+        long delay = backoffMs * attempt + ThreadLocalRandom.current().nextLong(backoffMs + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying", e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.goalapp.goal.service;
+
+import org.goalapp.goal.entities.Goal;
+import org.goalapp.goal.entities.GoalAssignment;
+import org.goalapp.goal.repository.GoalAssignmentBatchRepository;
+import org.goalapp.goal.repository.GoalAssignmentRepository;
+import org.goalapp.goal.repository.GoalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lazily materializes occurrences of recurring goals.
+ * Occurrence 0 is created with the goal; occurrence n gets assignment rows only once it opens
+ * (the deadline of occurrence n-1 passes) within the look-ahead window, or when a participant
+ * acts on it. Future occurrences never exist as rows.
+ */
+@Service
+public class RecurringGoalService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecurringGoalService.class);
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private GoalAssignmentRepository goalAssignmentRepository;
+
+    @Autowired
+    private GoalAssignmentBatchRepository goalAssignmentBatchRepository;
+
+    @Autowired
+    private GoalRevisionTracker goalRevisionTracker;
+
+    @Autowired
+    private OptimisticRetryExecutor optimisticRetry;
+
+    @Value("${goal.recurrence.materialize-ahead-hours:48}")
+    private long materializeAheadHours;
+
+    /**
+     * Set up occurrence bookkeeping for a freshly saved recurring goal whose occurrence 0 is being assigned.
+     */
+    public void initialize(Goal goal) {
+        goal.setMaterializedThrough(0);
+        goal.setNextOccurrenceAt(openingOf(goal, 1));
+    }
+
+    @Scheduled(fixedDelayString = "${goal.recurrence.materialize-interval-ms:3600000}")
+    public void materializeUpcoming() {
+        // A completion may materialize the same goal concurrently; the Goal version decides the winner
+        int created = optimisticRetry.execute("materialize",
+                () -> materializeThrough(LocalDateTime.now().plusHours(materializeAheadHours)));
+        if (created > 0) {
+            logger.info("Materialized {} recurring goal occurrences", created);
+        }
+    }
+
+    /**
+     * Create every occurrence that opens at or before the horizon. Returns the number of occurrences created.
+     */
+    @Transactional
+    public int materializeThrough(LocalDateTime horizon) {
+        int created = 0;
+        for (Goal goal : goalRepository.findByNextOccurrenceAtLessThanEqual(horizon)) {
+            created += materialize(goal, horizon);
+        }
+        return created;
+    }
+
+    /**
+     * Find the participant's assignment for the occurrence that is currently open,
+     * materializing it first if nobody has touched it yet.
+     */
+    @Transactional
+    public Optional<GoalAssignment> findCurrentOccurrence(Goal goal, Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        int current = currentOccurrence(goal, now);
+        if (goal.getRecurrenceEndsAt() != null && goal.occurrenceDeadline(current).isAfter(goal.getRecurrenceEndsAt())) {
+            return Optional.empty(); // the series is over
+        }
+        materialize(goal, now);
+        return goalAssignmentRepository.findByGoalIdAndUserIdAndOccurrence(goal.getId(), userId, current);
+    }
+
+    private int materialize(Goal goal, LocalDateTime horizon) {
+        int created = 0;
+        List<Long> participants = null;
+
+        while (goal.getNextOccurrenceAt() != null && !goal.getNextOccurrenceAt().isAfter(horizon)) {
+            if (participants == null) {
+                participants = goalAssignmentRepository.findRecurringParticipantIds(goal.getId());
+            }
+            int occurrence = goal.getMaterializedThrough() + 1;
+            goalAssignmentBatchRepository.insertPendingAssignments(
+                    goal.getId(), participants, occurrence, goal.occurrenceDeadline(occurrence));
+
+            goal.setMaterializedThrough(occurrence);
+            goal.setNextOccurrenceAt(openingOf(goal, occurrence + 1));
+            created++;
+        }
+        if (created > 0) {
+            goalRepository.save(goal);
+            goalRevisionTracker.touch(goal.getId());
+            logger.debug("Goal {} materialized through occurrence {}", goal.getId(), goal.getMaterializedThrough());
+        }
+        return created;
+    }
+
+    /**
+     * An occurrence opens when the previous one is due; null when it falls after the end of the series.
+     */
+    private LocalDateTime openingOf(Goal goal, int occurrence) {
+        if (goal.getRecurrenceEndsAt() != null && goal.occurrenceDeadline(occurrence).isAfter(goal.getRecurrenceEndsAt())) {
+            return null;
+        }
+        return goal.occurrenceDeadline(occurrence - 1);
+    }
+
+    /**
+     * The first occurrence whose deadline has not passed yet.
+     */
+    private int currentOccurrence(Goal goal, LocalDateTime now) {
+        if (!now.isAfter(goal.getDeadline())) {
+            return 0;
+        }
+        int interval = goal.getRecurrenceInterval() != null ? goal.getRecurrenceInterval() : 1;
+        Duration period = goal.getRecurrence() == Goal.Recurrence.WEEKLY
+                ? Duration.ofDays(7L * interval)
+                : Duration.ofDays(interval);
+        long elapsed = Duration.between(goal.getDeadline(), now).getSeconds();
+        long periodSeconds = period.getSeconds();
+        return (int) ((elapsed + periodSeconds - 1) / periodSeconds);
+    }
+}
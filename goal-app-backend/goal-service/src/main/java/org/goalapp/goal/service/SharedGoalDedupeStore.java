@@ -0,0 +1,79 @@
+package org.goalapp.goal.service;
+
+import org.goalapp.goal.entities.ProcessedChallenge;
+import org.goalapp.goal.repository.ProcessedChallengeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Remembers which challenge produced which shared goal.
+ * A bounded LRU map answers most redeliveries without a query; the processed_challenges table
+ * (primary key on challenge id) is the source of truth across restarts and consumer instances.
+ */
+@Component
+public class SharedGoalDedupeStore {
+
+    @Autowired
+    private ProcessedChallengeRepository processedChallengeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, Long> recent;
+
+    public SharedGoalDedupeStore(@Value("${goal.challenges.dedupe-cache-size:10000}") int cacheSize) {
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * The goal already created for the challenge, if any.
+     */
+    public Optional<Long> findGoalId(Long challengeId) {
+        Long cached = recent.get(challengeId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Long> goalId = processedChallengeRepository.findById(challengeId).map(ProcessedChallenge::getGoalId);
+        goalId.ifPresent(id -> recent.put(challengeId, id));
+        return goalId;
+    }
+
+    /**
+     * Claim the challenge inside the caller's transaction, before any goal work. Throws DuplicateKeyException
+     * if another delivery got there first (a concurrent claim waits on the row until that transaction ends);
+     * the caller must roll back and use findGoalId instead. goal_id stays 0 until record() fills it in,
+     * which only this transaction can see.
+     */
+    public void claim(Long challengeId) {
+        jdbcTemplate.update("INSERT INTO processed_challenges (challenge_id, goal_id, processed_at) VALUES (?, 0, ?)",
+                challengeId, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Attach the created goal to a claim made earlier in the same transaction.
+     */
+    public void record(Long challengeId, Long goalId) {
+        jdbcTemplate.update("UPDATE processed_challenges SET goal_id = ? WHERE challenge_id = ?", goalId, challengeId);
+    }
+
+    /**
+     * Cache a claim once its transaction has committed.
+     */
+    public void remember(Long challengeId, Long goalId) {
+        recent.put(challengeId, goalId);
+    }
+}
@@ -3,8 +3,10 @@ package org.goalapp.notification.controller;
 import org.goalapp.notification.dto.NotificationDto;
 import org.goalapp.notification.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -35,6 +37,13 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    // Constant-memory variant for users with many notifications
+    @GetMapping("/user/{userId}/stream")
+    public ResponseEntity<StreamingResponseBody> streamUserNotifications(@PathVariable Long userId) {
+        StreamingResponseBody body = out -> notificationService.streamUserNotifications(userId, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     // ✅ Keep your existing unseen endpoint
     @GetMapping("/user/{userId}/unseen")
     public ResponseEntity<List<NotificationDto>> getUnseenNotifications(@PathVariable Long userId) {
@@ -1,6 +1,7 @@
 package org.goalapp.notification.service;
 
 import org.goalapp.common.dto.NotificationEvent;
+import org.goalapp.common.kafka.KafkaTopics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
@@ -21,7 +22,7 @@ public class NotificationEventListener {
     @Autowired
     private NotificationService notificationService;
 
-    @KafkaListener(topics = "notification-topic", groupId = "notification-service-group")
+    @KafkaListener(topics = KafkaTopics.NOTIFICATION, groupId = "notification-service-group")
     public void handleNotificationEvent(@Payload NotificationEvent event,
                                         @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
                                         @Header(value = KafkaHeaders.RECEIVED_PARTITION, required = false) Integer partition,
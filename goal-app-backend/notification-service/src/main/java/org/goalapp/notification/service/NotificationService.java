@@ -1,11 +1,14 @@
 package org.goalapp.notification.service;
 
+import org.goalapp.common.stream.JdbcJsonStreamer;
 import org.goalapp.notification.dto.NotificationDto;
 import org.goalapp.notification.entities.Notification;
 import org.goalapp.notification.repository.NotificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -16,6 +19,9 @@ public class NotificationService {
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private JdbcJsonStreamer jdbcJsonStreamer;
+
     public NotificationDto createNotification(Long userId, String type, String message) {
         return createNotification(userId, type, message, null);
     }
@@ -39,6 +45,27 @@ public class NotificationService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Same rows and order as getUserNotifications, written to the stream as they are read.
+     */
+    public void streamUserNotifications(Long userId, OutputStream out) throws IOException {
+        jdbcJsonStreamer.streamArray(out,
+                "SELECT id, user_id, type, message, seen, created_at, related_id FROM notifications " +
+                "WHERE user_id = ? ORDER BY created_at DESC",
+                (rs, rowNum) -> {
+                    NotificationDto dto = new NotificationDto();
+                    dto.setId(rs.getLong("id"));
+                    dto.setUserId(rs.getLong("user_id"));
+                    dto.setType(rs.getString("type"));
+                    dto.setMessage(rs.getString("message"));
+                    dto.setSeen(rs.getObject("seen", Boolean.class));
+                    dto.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+                    dto.setRelatedId(rs.getObject("related_id", Long.class));
+                    return dto;
+                },
+                userId);
+    }
+
     public List<NotificationDto> getUnseenNotifications(Long userId) {
         return notificationRepository.findByUserIdAndSeenOrderByCreatedAtDesc(userId, false).stream()
                 .map(this::convertToDto)
@@ -0,0 +1,147 @@
+package org.goalapp.point.rules;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring cost per event: CompiledPointsRules.evaluate (including the string-to-index lookups
+ * PointsService does) against the hard-coded switch it replaced. Run with -prof gc to check the
+ * allocation rate; "base" is the shipped rules file, "full" turns on every multiplier rule.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PointsRulesBenchmark {
+
+    private static final int EVENTS = 1024;
+    private static final String[] REASONS = {"GOAL_COMPLETED", "GOAL_COMPLETED", "GOAL_MISSED", "GOAL_UPDATED"};
+    private static final String[] DIFFICULTIES = {"EASY", "MEDIUM", "HARD", "EXTREME"};
+    private static final String[] GOAL_TYPES = {"PERSONAL", "SHARED"};
+
+    @Param({"base", "full"})
+    private String rules;
+
+    private CompiledPointsRules compiled;
+    private final String[] reasons = new String[EVENTS];
+    private final String[] difficulties = new String[EVENTS];
+    private final String[] goalTypes = new String[EVENTS];
+    private final long[] secondsBeforeDeadline = new long[EVENTS];
+    private final int[] streakDays = new int[EVENTS];
+    private final long[] occurredAt = new long[EVENTS];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PointsRulesProperties properties = new PointsRulesProperties();
+        if ("full".equals(rules)) {
+            properties.getGoalTypeMultipliers().setShared(1.1);
+            properties.setEarlyCompletion(List.of(early(48, 1.5), early(24, 1.2)));
+            properties.setStreaks(List.of(streak(7, 1.5), streak(3, 1.2)));
+            properties.setPromos(List.of(promo(LocalDateTime.of(2026, 11, 1, 0, 0), 2.0)));
+        }
+        compiled = new CompiledPointsRules(properties);
+
+        Random random = new Random(42);
+        long start = LocalDateTime.of(2026, 10, 25, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        for (int i = 0; i < EVENTS; i++) {
+            reasons[i] = REASONS[random.nextInt(REASONS.length)];
+            difficulties[i] = DIFFICULTIES[random.nextInt(DIFFICULTIES.length)];
+            goalTypes[i] = GOAL_TYPES[random.nextInt(GOAL_TYPES.length)];
+            secondsBeforeDeadline[i] = random.nextInt(4) == 0
+                    ? CompiledPointsRules.UNKNOWN_SECONDS_BEFORE_DEADLINE
+                    : random.nextInt(72 * 3600);
+            streakDays[i] = random.nextInt(10);
+            occurredAt[i] = start + random.nextInt(14 * 24 * 3600);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void compiledRules(Blackhole blackhole) {
+        for (int i = 0; i < EVENTS; i++) {
+            blackhole.consume(compiled.evaluate(
+                    CompiledPointsRules.reasonIndex(reasons[i]),
+                    CompiledPointsRules.difficultyIndex(difficulties[i]),
+                    CompiledPointsRules.goalTypeIndex(goalTypes[i]),
+                    secondsBeforeDeadline[i],
+                    streakDays[i],
+                    occurredAt[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void switchBaseline(Blackhole blackhole) {
+        for (int i = 0; i < EVENTS; i++) {
+            blackhole.consume(calculatePoints(reasons[i], difficulties[i]));
+        }
+    }
+
+    /**
+     * PointsService.calculatePoints as it was before the rules engine.
+     */
+    private static int calculatePoints(String reason, String difficulty) {
+        int basePoints = 0;
+
+        if ("GOAL_COMPLETED".equals(reason)) {
+            switch (difficulty) {
+                case "EASY": basePoints = 10; break;
+                case "MEDIUM": basePoints = 20; break;
+                case "HARD": basePoints = 30; break;
+                default: basePoints = 15;
+            }
+        } else if ("GOAL_MISSED".equals(reason)) {
+            switch (difficulty) {
+                case "EASY": basePoints = -5; break;
+                case "MEDIUM": basePoints = -10; break;
+                case "HARD": basePoints = -15; break;
+                default: basePoints = -10;
+            }
+        }
+
+        return basePoints;
+    }
+
+    private static PointsRulesProperties.EarlyCompletion early(int hoursBefore, double multiplier) {
+        PointsRulesProperties.EarlyCompletion early = new PointsRulesProperties.EarlyCompletion();
+        early.setHoursBefore(hoursBefore);
+        early.setMultiplier(multiplier);
+        return early;
+    }
+
+    private static PointsRulesProperties.Streak streak(int minDays, double multiplier) {
+        PointsRulesProperties.Streak streak = new PointsRulesProperties.Streak();
+        streak.setMinDays(minDays);
+        streak.setMultiplier(multiplier);
+        return streak;
+    }
+
+    private static PointsRulesProperties.Promo promo(LocalDateTime start, double multiplier) {
+        PointsRulesProperties.Promo promo = new PointsRulesProperties.Promo();
+        promo.setName("benchmark-week");
+        promo.setStart(start);
+        promo.setEnd(start.plusDays(7));
+        promo.setMultiplier(multiplier);
+        return promo;
+    }
+}
@@ -0,0 +1,116 @@
+package org.goalapp.point.service;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.goalapp.common.kafka.KafkaTopics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Events/sec through one service instance's record listener at listener concurrency 1 against
+ * 3 (what the services run) and 6 (one thread per partition), on an embedded broker with the
+ * goalapp.kafka.topics.partitions default of 6. Each record costs workMicros of blocking I/O,
+ * standing in for the database write and downstream call a listener makes; workMicros=0 leaves
+ * only the poll and dispatch overhead. The container is assigned once per trial, so rebalances
+ * are not measured; each invocation produces a burst keyed over many users and waits for it to drain.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListenerConcurrencyBenchmark {
+
+    private static final int PARTITIONS = 6;
+    private static final int EVENTS = 1200;
+    private static final int USERS = 1000;
+
+    @Param({"1", "3", "6"})
+    private int concurrency;
+
+    @Param({"0", "500"})
+    private long workMicros;
+
+    private EmbeddedKafkaKraftBroker broker;
+    private KafkaTemplate<String, String> kafkaTemplate;
+    private ConcurrentMessageListenerContainer<String, String> container;
+    private volatile CountDownLatch drained;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS, KafkaTopics.POINTS);
+        broker.afterPropertiesSet();
+
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(broker.getBrokersAsString());
+        producerProps.put("linger.ms", 5);
+        kafkaTemplate = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(producerProps,
+                new StringSerializer(), new StringSerializer()));
+
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("points-benchmark-" + concurrency, "false", broker);
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        consumerProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+        ContainerProperties containerProperties = new ContainerProperties(KafkaTopics.POINTS);
+        long workNanos = TimeUnit.MICROSECONDS.toNanos(workMicros);
+        containerProperties.setMessageListener((MessageListener<String, String>) record -> {
+            if (workNanos > 0) {
+                LockSupport.parkNanos(workNanos);
+            }
+            drained.countDown();
+        });
+        container = new ConcurrentMessageListenerContainer<>(new DefaultKafkaConsumerFactory<>(consumerProps,
+                new StringDeserializer(), new StringDeserializer()), containerProperties);
+        container.setConcurrency(concurrency);
+        drained = new CountDownLatch(0);
+        container.start();
+        ContainerTestUtils.waitForAssignment(container, PARTITIONS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        container.stop();
+        kafkaTemplate.destroy();
+        broker.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void consume() throws InterruptedException {
+        drained = new CountDownLatch(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            kafkaTemplate.send(new ProducerRecord<>(KafkaTopics.POINTS, String.valueOf(i % USERS), "event-" + i));
+        }
+        kafkaTemplate.flush();
+        if (!drained.await(60, TimeUnit.SECONDS)) {
+            throw new IllegalStateException(drained.getCount() + " records not consumed");
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.goalapp.point.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.goalapp.common.dto.GoalLifecycleEvent;
+import org.goalapp.common.kafka.KafkaTopics;
+import org.goalapp.point.dto.PointsLogDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Events/sec for one consumer thread: PointsBatchListener on a full poll batch against
+ * PointEventListener handling the same records one at a time. PointsService is replaced by a
+ * stub that costs one round trip per ledger transaction and per user-service push (pushes for
+ * different users overlap up to downstream.max-in-flight, as in UserPointsClient.applyDeltas),
+ * so the numbers show how many round trips each listener pays per event, not database speed.
+ * roundTripMicros=0 measures the listeners' own overhead.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PointsListenerBenchmark {
+
+    // spring.kafka.consumer.max-poll-records
+    private static final int EVENTS = 500;
+    private static final int USERS = 100;
+    // downstream.max-in-flight
+    private static final int MAX_IN_FLIGHT = 16;
+    private static final String[] TYPES = {GoalLifecycleEvent.GOAL_COMPLETED, GoalLifecycleEvent.GOAL_COMPLETED,
+            GoalLifecycleEvent.GOAL_MISSED};
+    private static final String[] DIFFICULTIES = {"EASY", "MEDIUM", "HARD"};
+
+    @Param({"0", "250", "1000"})
+    private long roundTripMicros;
+
+    private PointsBatchListener batchListener;
+    private PointEventListener recordListener;
+    private final List<ConsumerRecord<String, Object>> records = new ArrayList<>(EVENTS);
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PointsService pointsService = new RoundTripPointsService(TimeUnit.MICROSECONDS.toNanos(roundTripMicros));
+
+        // Lifecycle events carry their difficulty, so neither listener touches the goal-service client
+        batchListener = new PointsBatchListener(pointsService, null, null, meterRegistry);
+        recordListener = new PointEventListener();
+        inject(recordListener, "pointsService", pointsService);
+        inject(recordListener, "meterRegistry", meterRegistry);
+
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.of(2026, 10, 18, 12, 0);
+        for (int i = 0; i < EVENTS; i++) {
+            GoalLifecycleEvent event = new GoalLifecycleEvent((long) random.nextInt(10_000),
+                    (long) random.nextInt(USERS), TYPES[random.nextInt(TYPES.length)],
+                    DIFFICULTIES[random.nextInt(DIFFICULTIES.length)], "goal " + i, "PERSONAL");
+            event.setDeadline(now.plusHours(random.nextInt(72)));
+            event.setTimestamp(now);
+            records.add(new ConsumerRecord<>(KafkaTopics.POINTS, 0, i, String.valueOf(event.getUserId()), event));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void batchListener() {
+        batchListener.handleBatch(records);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void recordListener() {
+        for (ConsumerRecord<String, Object> record : records) {
+            recordListener.handleGoalLifecycleEvent((GoalLifecycleEvent) record.value(),
+                    record.topic(), record.partition(), record.offset());
+        }
+    }
+
+    private static void inject(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    /**
+     * The I/O shape of PointsService without the database or user-service behind it.
+     */
+    private static final class RoundTripPointsService extends PointsService {
+
+        private final long roundTripNanos;
+
+        RoundTripPointsService(long roundTripNanos) {
+            this.roundTripNanos = roundTripNanos;
+        }
+
+        @Override
+        public PointsLogDto addPoints(PointAward award) {
+            roundTrip(); // ledger transaction
+            roundTrip(); // user-service push
+            return new PointsLogDto();
+        }
+
+        @Override
+        public Map<Long, Integer> addPointsBatch(List<PointAward> awards) {
+            Map<Long, Integer> deltas = new LinkedHashMap<>();
+            for (PointAward award : awards) {
+                deltas.merge(award.userId(), 10, Integer::sum);
+            }
+            roundTrip(); // one transaction for the whole JDBC batch
+            for (int pushed = 0; pushed < deltas.size(); pushed += MAX_IN_FLIGHT) {
+                roundTrip(); // one wave of concurrent user-service pushes
+            }
+            return deltas;
+        }
+
+        private void roundTrip() {
+            if (roundTripNanos > 0) {
+                LockSupport.parkNanos(roundTripNanos);
+            }
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package org.goalapp.point;
 
+import org.goalapp.common.kafka.EnableKafkaTopics;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableKafka
+@EnableKafkaTopics
+@EnableScheduling
 public class PointsServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(PointsServiceApplication.class, args);
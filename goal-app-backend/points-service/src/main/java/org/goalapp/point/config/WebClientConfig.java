@@ -1,14 +1,64 @@
 package org.goalapp.point.config;
 
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.time.Duration;
+
+/**
+ * One connection pool shared by the downstream clients. Each client is built once and reused;
+ * building a WebClient per call used to set up a fresh connector every time.
+ */
 @Configuration
 public class WebClientConfig {
 
+    @Value("${downstream.max-connections:50}")
+    private int maxConnections;
+
+    // Requests waiting for a pooled connection beyond this fail fast instead of queueing without bound
+    @Value("${downstream.pending-acquire-max:500}")
+    private int pendingAcquireMax;
+
+    @Value("${downstream.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+
+    @Value("${downstream.response-timeout-ms:3000}")
+    private long responseTimeoutMs;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider downstreamConnectionProvider() {
+        return ConnectionProvider.builder("points-downstream")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofMillis(connectTimeoutMs))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient.Builder webClientBuilder(ConnectionProvider downstreamConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(downstreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+        return WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient));
+    }
+
+    @Bean
+    public WebClient goalServiceWebClient(WebClient.Builder webClientBuilder,
+                                          @Value("${services.goal-service.url:http://localhost:8082}") String baseUrl) {
+        return webClientBuilder.clone().baseUrl(baseUrl).build();
+    }
+
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    public WebClient userServiceWebClient(WebClient.Builder webClientBuilder,
+                                          @Value("${services.user-service.url:http://localhost:8081}") String baseUrl) {
+        return webClientBuilder.clone().baseUrl(baseUrl).build();
     }
 }
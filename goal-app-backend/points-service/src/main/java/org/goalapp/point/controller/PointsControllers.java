@@ -1,11 +1,20 @@
 package org.goalapp.point.controller;
 
+import org.goalapp.point.dto.PointsBalanceDto;
 import org.goalapp.point.dto.PointsLogDto;
+import org.goalapp.point.dto.PointsPageDto;
+import org.goalapp.point.dto.PointsReconciliationReportDto;
+import org.goalapp.point.dto.PointsSeriesPointDto;
+import org.goalapp.point.entities.PointsRollup;
+import org.goalapp.point.service.PointsReconciliationService;
 import org.goalapp.point.service.PointsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,14 +26,19 @@ public class PointsControllers {
     @Autowired
     private PointsService pointsService;
 
+    @Autowired
+    private PointsReconciliationService reconciliationService;
+
     @PostMapping
     public ResponseEntity<PointsLogDto> addPoints(
             @RequestParam Long userId,
             @RequestParam Long goalId,
             @RequestParam String reason,
-            @RequestParam(defaultValue = "MEDIUM") String difficulty) {
+            @RequestParam(defaultValue = "MEDIUM") String difficulty,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
-            PointsLogDto pointsLog = pointsService.addPoints(userId, goalId, reason, difficulty);
+            // Retries with the same Idempotency-Key get the original entry back instead of a second award
+            PointsLogDto pointsLog = pointsService.addPoints(userId, goalId, reason, difficulty, idempotencyKey);
             return ResponseEntity.ok(pointsLog);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -37,6 +51,30 @@ public class PointsControllers {
         return ResponseEntity.ok(history);
     }
 
+    /**
+     * Keyset-paginated history, newest first; follow nextCursor for the next page.
+     */
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<PointsPageDto> getUserPointsPage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String reason,
+            @RequestParam(required = false) Long goalId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(pointsService.getUserPointsPage(userId, reason, goalId, cursor, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Constant-memory variant for users with a long history
+    @GetMapping("/user/{userId}/stream")
+    public ResponseEntity<StreamingResponseBody> streamUserPointsHistory(@PathVariable Long userId) {
+        StreamingResponseBody body = out -> pointsService.streamUserPointsHistory(userId, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @GetMapping("/goal/{goalId}")
     public ResponseEntity<List<PointsLogDto>> getGoalPointsHistory(@PathVariable Long goalId) {
         List<PointsLogDto> history = pointsService.getGoalPointsHistory(goalId);
@@ -49,6 +87,16 @@ public class PointsControllers {
         return ResponseEntity.ok(total);
     }
 
+    /**
+     * Balance as it stood at asOf (inclusive); defaults to now.
+     */
+    @GetMapping("/user/{userId}/balance")
+    public ResponseEntity<PointsBalanceDto> getUserBalanceAsOf(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        return ResponseEntity.ok(pointsService.getBalanceAsOf(userId, asOf != null ? asOf : LocalDateTime.now()));
+    }
+
     @GetMapping("/user/{userId}/period")
     public ResponseEntity<List<PointsLogDto>> getUserPointsInPeriod(
             @PathVariable Long userId,
@@ -57,4 +105,40 @@ public class PointsControllers {
         List<PointsLogDto> history = pointsService.getUserPointsInPeriod(userId, start, end);
         return ResponseEntity.ok(history);
     }
+
+    /**
+     * Points per bucket (hour or day) for charts; buckets start in [from, to) and empty ones are omitted.
+     */
+    @GetMapping("/user/{userId}/series")
+    public ResponseEntity<List<PointsSeriesPointDto>> getUserPointsSeries(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "day") String bucket,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            PointsRollup.Bucket granularity = PointsRollup.Bucket.valueOf(bucket.toUpperCase());
+            return ResponseEntity.ok(pointsService.getUserPointsSeries(userId, granularity, from, to));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Compare users.points in user-service with the ledger; correct=true also pushes the stable drift as deltas.
+     * Runs synchronously and refuses to start while another run is in progress.
+     */
+    @PostMapping("/reconcile")
+    public ResponseEntity<PointsReconciliationReportDto> reconcile(@RequestParam(defaultValue = "false") boolean correct) {
+        try {
+            return ResponseEntity.ok(reconciliationService.reconcile(correct));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @GetMapping("/reconcile/last")
+    public ResponseEntity<PointsReconciliationReportDto> getLastReconciliation() {
+        PointsReconciliationReportDto report = reconciliationService.getLastReport();
+        return report != null ? ResponseEntity.ok(report) : ResponseEntity.notFound().build();
+    }
 }
@@ -0,0 +1,36 @@
+package org.goalapp.point.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user's balance at asOf: every ledger row logged at or before it. snapshotAt is the
+ * monthly snapshot the answer was built from (null if none applied).
+ */
+public class PointsBalanceDto {
+    private Long userId;
+    private LocalDateTime asOf;
+    private Long balance;
+    private LocalDateTime snapshotAt;
+
+    public PointsBalanceDto() {
+    }
+
+    public PointsBalanceDto(Long userId, LocalDateTime asOf, Long balance, LocalDateTime snapshotAt) {
+        this.userId = userId;
+        this.asOf = asOf;
+        this.balance = balance;
+        this.snapshotAt = snapshotAt;
+    }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public LocalDateTime getAsOf() { return asOf; }
+    public void setAsOf(LocalDateTime asOf) { this.asOf = asOf; }
+
+    public Long getBalance() { return balance; }
+    public void setBalance(Long balance) { this.balance = balance; }
+
+    public LocalDateTime getSnapshotAt() { return snapshotAt; }
+    public void setSnapshotAt(LocalDateTime snapshotAt) { this.snapshotAt = snapshotAt; }
+}
@@ -0,0 +1,33 @@
+package org.goalapp.point.dto;
+
+/**
+ * One user whose users.points in user-service differs from the points ledger; drift = ledgerPoints - userPoints.
+ */
+public class PointsDriftDto {
+    private Long userId;
+    private Long ledgerPoints;
+    private Integer userPoints;
+    private Long drift;
+
+    public PointsDriftDto() {
+    }
+
+    public PointsDriftDto(Long userId, Long ledgerPoints, Integer userPoints) {
+        this.userId = userId;
+        this.ledgerPoints = ledgerPoints;
+        this.userPoints = userPoints;
+        this.drift = ledgerPoints - userPoints;
+    }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getLedgerPoints() { return ledgerPoints; }
+    public void setLedgerPoints(Long ledgerPoints) { this.ledgerPoints = ledgerPoints; }
+
+    public Integer getUserPoints() { return userPoints; }
+    public void setUserPoints(Integer userPoints) { this.userPoints = userPoints; }
+
+    public Long getDrift() { return drift; }
+    public void setDrift(Long drift) { this.drift = drift; }
+}
@@ -0,0 +1,25 @@
+package org.goalapp.point.dto;
+
+import java.util.List;
+
+/**
+ * One page of points history; nextCursor is null on the last page.
+ */
+public class PointsPageDto {
+    private List<PointsLogDto> items;
+    private String nextCursor;
+
+    public PointsPageDto() {
+    }
+
+    public PointsPageDto(List<PointsLogDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<PointsLogDto> getItems() { return items; }
+    public void setItems(List<PointsLogDto> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
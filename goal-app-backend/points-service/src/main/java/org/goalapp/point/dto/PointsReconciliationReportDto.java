@@ -0,0 +1,50 @@
+package org.goalapp.point.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Outcome of one ledger-to-user-service reconciliation run. drifts holds the largest
+ * differences only (points.reconcile.max-reported); the totals cover every user.
+ */
+public class PointsReconciliationReportDto {
+    private LocalDateTime startedAt;
+    private Long durationMs;
+    private Long usersScanned;
+    private Long driftedUsers;
+    private Long netDrift;
+    private Long absoluteDrift;
+    private Long missingInUserService;
+    private Long corrected;
+    private List<PointsDriftDto> drifts;
+
+    public PointsReconciliationReportDto() {
+    }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public Long getDurationMs() { return durationMs; }
+    public void setDurationMs(Long durationMs) { this.durationMs = durationMs; }
+
+    public Long getUsersScanned() { return usersScanned; }
+    public void setUsersScanned(Long usersScanned) { this.usersScanned = usersScanned; }
+
+    public Long getDriftedUsers() { return driftedUsers; }
+    public void setDriftedUsers(Long driftedUsers) { this.driftedUsers = driftedUsers; }
+
+    public Long getNetDrift() { return netDrift; }
+    public void setNetDrift(Long netDrift) { this.netDrift = netDrift; }
+
+    public Long getAbsoluteDrift() { return absoluteDrift; }
+    public void setAbsoluteDrift(Long absoluteDrift) { this.absoluteDrift = absoluteDrift; }
+
+    public Long getMissingInUserService() { return missingInUserService; }
+    public void setMissingInUserService(Long missingInUserService) { this.missingInUserService = missingInUserService; }
+
+    public Long getCorrected() { return corrected; }
+    public void setCorrected(Long corrected) { this.corrected = corrected; }
+
+    public List<PointsDriftDto> getDrifts() { return drifts; }
+    public void setDrifts(List<PointsDriftDto> drifts) { this.drifts = drifts; }
+}
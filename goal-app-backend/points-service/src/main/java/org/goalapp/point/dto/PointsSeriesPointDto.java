@@ -0,0 +1,30 @@
+package org.goalapp.point.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One hour or day of a user's points series.
+ */
+public class PointsSeriesPointDto {
+    private LocalDateTime bucketStart;
+    private Long points;
+    private Integer events;
+
+    public PointsSeriesPointDto() {
+    }
+
+    public PointsSeriesPointDto(LocalDateTime bucketStart, Long points, Integer events) {
+        this.bucketStart = bucketStart;
+        this.points = points;
+        this.events = events;
+    }
+
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+
+    public Long getPoints() { return points; }
+    public void setPoints(Long points) { this.points = points; }
+
+    public Integer getEvents() { return events; }
+    public void setEvents(Integer events) { this.events = events; }
+}
@@ -0,0 +1,41 @@
+package org.goalapp.point.entities;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last verified state of a user's balance: the ledger up to throughLogId sums to balance.
+ * The next verification only has to add the rows after throughLogId.
+ */
+@Entity
+@Table(name = "points_balance_checkpoints")
+public class PointsBalanceCheckpoint {
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getThroughLogId() {
+        return throughLogId;
+    }
+
+    public Long getBalance() {
+        return balance;
+    }
+
+    public LocalDateTime getCheckedAt() {
+        return checkedAt;
+    }
+
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long throughLogId;
+
+    @Column(nullable = false)
+    private Long balance;
+
+    private LocalDateTime checkedAt;
+}
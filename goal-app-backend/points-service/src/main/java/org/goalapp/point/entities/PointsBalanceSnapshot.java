@@ -0,0 +1,62 @@
+package org.goalapp.point.entities;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A user's balance at the start of a month: the sum of their points_log rows logged before snapshotAt.
+ * Written by PointsBalanceSnapshotter for users who earned points during the month before, so the
+ * latest snapshot at or before any instant is never more than a month of rollups behind it.
+ */
+@Entity
+@IdClass(PointsBalanceSnapshot.Key.class)
+@Table(name = "points_balance_snapshots", indexes = {
+        // Lets an interrupted snapshot run resume after the last user it wrote
+        @Index(name = "idx_points_snapshots_at", columnList = "snapshotAt, userId")
+})
+public class PointsBalanceSnapshot {
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getSnapshotAt() {
+        return snapshotAt;
+    }
+
+    public Long getBalance() {
+        return balance;
+    }
+
+    @Id
+    private Long userId;
+
+    @Id
+    private LocalDateTime snapshotAt;
+
+    @Column(nullable = false)
+    private Long balance;
+
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDateTime snapshotAt;
+
+        public Key() {
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(userId, key.userId) && Objects.equals(snapshotAt, key.snapshotAt);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, snapshotAt);
+        }
+    }
+}
@@ -5,7 +5,15 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "points_log")
+@Table(name = "points_log", uniqueConstraints = {
+        // Null for awards without an event id (MySQL allows any number of NULLs in a unique index)
+        @UniqueConstraint(name = "uk_points_log_idempotency_key", columnNames = "idempotencyKey")
+}, indexes = {
+        // Keyset pages (PointsLedgerReader): one index per filter combination, each ending in the sort key
+        @Index(name = "idx_points_log_user_logged", columnList = "userId, loggedAt, id"),
+        @Index(name = "idx_points_log_user_reason_logged", columnList = "userId, reason, loggedAt, id"),
+        @Index(name = "idx_points_log_user_goal_logged", columnList = "userId, goalId, loggedAt, id")
+})
 public class PointsLog {
 
     public Long getId() {
@@ -67,4 +75,8 @@ public class PointsLog {
     private String reason;
 
     private LocalDateTime loggedAt = LocalDateTime.now();
+
+    // SHA-256 of (userId, goalId, reason, eventId), see AwardDedupeStore
+    @Column(length = 64)
+    private String idempotencyKey;
 }
@@ -0,0 +1,36 @@
+package org.goalapp.point.entities;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Drift (ledger minus user-service points) seen for a user by the last reconciliation that covered them.
+ * PointsReconciliationService only corrects a drift that is still the same on the next run, so a push
+ * that was merely late is never corrected twice by concurrent or back-to-back runs.
+ */
+@Entity
+@Table(name = "points_reconcile_drift")
+public class PointsReconcileDrift {
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getDrift() {
+        return drift;
+    }
+
+    public LocalDateTime getSeenAt() {
+        return seenAt;
+    }
+
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long drift;
+
+    @Column(nullable = false)
+    private LocalDateTime seenAt;
+}
@@ -0,0 +1,88 @@
+package org.goalapp.point.entities;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Sum of one user's points_log rows per hour or day, kept up to date by PointsRollupWriter
+ * in the ledger's own transaction. The primary key makes a series one range scan.
+ */
+@Entity
+@IdClass(PointsRollup.Key.class)
+@Table(name = "points_rollups")
+public class PointsRollup {
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Bucket getBucket() {
+        return bucket;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public Long getPointsTotal() {
+        return pointsTotal;
+    }
+
+    public Integer getEventCount() {
+        return eventCount;
+    }
+
+    @Id
+    private Long userId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private Bucket bucket;
+
+    @Id
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private Long pointsTotal = 0L;
+
+    @Column(nullable = false)
+    private Integer eventCount = 0;
+
+    public enum Bucket {
+        HOUR, DAY;
+
+        public LocalDateTime truncate(LocalDateTime time) {
+            return this == HOUR ? time.withMinute(0).withSecond(0).withNano(0) : time.toLocalDate().atStartOfDay();
+        }
+
+        public LocalDateTime next(LocalDateTime bucketStart) {
+            return this == HOUR ? bucketStart.plusHours(1) : bucketStart.plusDays(1);
+        }
+    }
+
+    public static class Key implements Serializable {
+        private Long userId;
+        private Bucket bucket;
+        private LocalDateTime bucketStart;
+
+        public Key() {
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(userId, key.userId) && bucket == key.bucket
+                    && Objects.equals(bucketStart, key.bucketStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, bucket, bucketStart);
+        }
+    }
+}
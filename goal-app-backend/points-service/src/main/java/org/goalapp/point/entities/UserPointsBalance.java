@@ -0,0 +1,41 @@
+package org.goalapp.point.entities;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running total of a user's points_log rows. Written only by PointsBalanceWriter, in the same
+ * transaction as the ledger rows it covers; lastLogId is the highest ledger id included.
+ */
+@Entity
+@Table(name = "user_points_balance")
+public class UserPointsBalance {
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getBalance() {
+        return balance;
+    }
+
+    public Long getLastLogId() {
+        return lastLogId;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long balance = 0L;
+
+    @Column(nullable = false)
+    private Long lastLogId = 0L;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,72 @@
+package org.goalapp.point.repository;
+
+import org.goalapp.point.dto.PointsBalanceDto;
+import org.goalapp.point.entities.PointsRollup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Point-in-time balances without summing the whole ledger: the latest monthly snapshot at or before
+ * asOf, plus the day rollups up to asOf's day, the hour rollups up to its hour, and the raw ledger
+ * rows of that last hour. Each part is bounded (a month of days, a day of hours, an hour of rows),
+ * so the cost does not grow with the age of the account.
+ *
+ * Callers make sure the user's rollups are seeded (PointsRollupWriter.seed) first.
+ */
+@Repository
+public class PointsBalanceHistoryReader {
+
+    private static final String SNAPSHOT_SQL =
+            "SELECT snapshot_at, balance FROM points_balance_snapshots WHERE user_id = ? AND snapshot_at <= ? " +
+            "ORDER BY snapshot_at DESC LIMIT 1";
+
+    private static final String DELTAS_SQL =
+            "SELECT COALESCE(SUM(points_total), 0) FROM points_rollups " +
+            "WHERE user_id = ? AND bucket = 'DAY' AND bucket_start >= ? AND bucket_start < ? " +
+            "UNION ALL " +
+            "SELECT COALESCE(SUM(points_total), 0) FROM points_rollups " +
+            "WHERE user_id = ? AND bucket = 'HOUR' AND bucket_start >= ? AND bucket_start < ? " +
+            "UNION ALL " +
+            "SELECT COALESCE(SUM(points_change), 0) FROM points_log " +
+            "WHERE user_id = ? AND logged_at >= ? AND logged_at <= ?";
+
+    // Lower bound when there is no snapshot yet
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private record Snapshot(LocalDateTime snapshotAt, long balance) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PointsBalanceHistoryReader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public PointsBalanceDto balanceAsOf(Long userId, LocalDateTime asOf) {
+        List<Snapshot> snapshots = jdbcTemplate.query(SNAPSHOT_SQL,
+                (rs, rowNum) -> new Snapshot(rs.getObject("snapshot_at", LocalDateTime.class), rs.getLong("balance")),
+                userId, Timestamp.valueOf(asOf));
+        Snapshot snapshot = snapshots.isEmpty() ? null : snapshots.get(0);
+
+        // Snapshots are taken at midnight, so they never fall inside asOf's day
+        LocalDateTime from = snapshot != null ? snapshot.snapshotAt() : BEGINNING;
+        LocalDateTime day = PointsRollup.Bucket.DAY.truncate(asOf);
+        LocalDateTime hour = PointsRollup.Bucket.HOUR.truncate(asOf);
+        LocalDateTime dayFrom = from.isAfter(day) ? from : day;
+        LocalDateTime hourFrom = from.isAfter(hour) ? from : hour;
+
+        List<Long> parts = jdbcTemplate.queryForList(DELTAS_SQL, Long.class,
+                userId, Timestamp.valueOf(from), Timestamp.valueOf(day),
+                userId, Timestamp.valueOf(dayFrom), Timestamp.valueOf(hour),
+                userId, Timestamp.valueOf(hourFrom), Timestamp.valueOf(asOf));
+        long balance = snapshot != null ? snapshot.balance() : 0;
+        for (Long part : parts) {
+            balance += part != null ? part : 0;
+        }
+        return new PointsBalanceDto(userId, asOf, balance, snapshot != null ? snapshot.snapshotAt() : null);
+    }
+}
@@ -0,0 +1,87 @@
+package org.goalapp.point.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC writer for user_points_balance. Callers lock the users' rows before inserting ledger rows
+ * and apply the deltas afterwards, all in one transaction, so per user the ledger ids are handed
+ * out in commit order and lastLogId is a consistent cut of the ledger.
+ */
+@Repository
+public class PointsBalanceWriter {
+
+    // The no-op ON DUPLICATE KEY branch takes the row's exclusive lock. New rows start
+    // unseeded (last_log_id = -1) until SEED_SQL folds in any history from before the table existed.
+    private static final String LOCK_SQL =
+            "INSERT INTO user_points_balance (user_id, balance, last_log_id, updated_at) VALUES (?, 0, -1, ?) " +
+            "ON DUPLICATE KEY UPDATE user_id = user_id";
+
+    private static final String SEED_SQL =
+            "UPDATE user_points_balance b SET " +
+            "b.balance = (SELECT COALESCE(SUM(l.points_change), 0) FROM points_log l WHERE l.user_id = b.user_id), " +
+            "b.last_log_id = (SELECT COALESCE(MAX(l.id), 0) FROM points_log l WHERE l.user_id = b.user_id) " +
+            "WHERE b.user_id IN (:userIds)";
+
+    private static final String SELECT_UNSEEDED_SQL =
+            "SELECT user_id FROM user_points_balance WHERE user_id IN (:userIds) AND last_log_id < 0";
+
+    private static final String APPLY_SQL =
+            "UPDATE user_points_balance SET balance = balance + ?, last_log_id = GREATEST(last_log_id, ?), updated_at = ? " +
+            "WHERE user_id = ?";
+
+    /**
+     * Net change and highest new ledger id for one user.
+     */
+    public record Delta(long pointsChange, long lastLogId) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public PointsBalanceWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Lock (creating and seeding if needed) the balance rows, in user id order so concurrent batches cannot deadlock.
+     *
+     * @return the users whose rows were just seeded from existing ledger history
+     */
+    public List<Long> lock(Collection<Long> userIds) {
+        List<Long> sorted = userIds.stream().distinct().sorted().toList();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(LOCK_SQL, sorted, sorted.size(), (ps, userId) -> {
+            ps.setLong(1, userId);
+            ps.setTimestamp(2, now);
+        });
+        List<Long> unseeded = namedJdbcTemplate.queryForList(SELECT_UNSEEDED_SQL, Map.of("userIds", sorted), Long.class);
+        if (!unseeded.isEmpty()) {
+            namedJdbcTemplate.update(SEED_SQL, Map.of("userIds", unseeded));
+        }
+        return unseeded;
+    }
+
+    public void apply(Map<Long, Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Map.Entry<Long, Delta>> entries = new ArrayList<>(deltas.entrySet());
+        jdbcTemplate.batchUpdate(APPLY_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getValue().pointsChange());
+            ps.setLong(2, entry.getValue().lastLogId());
+            ps.setTimestamp(3, now);
+            ps.setLong(4, entry.getKey());
+        });
+    }
+}
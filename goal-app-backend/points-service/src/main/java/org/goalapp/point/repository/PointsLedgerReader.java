@@ -0,0 +1,90 @@
+package org.goalapp.point.repository;
+
+import org.goalapp.point.dto.PointsLogDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Keyset pagination over a user's points_log, newest first by (logged_at, id).
+ * Each page is an index range read that starts at the cursor, so its cost does not depend on how
+ * deep into the history it is. Every filter combination has a matching index on PointsLog.
+ */
+@Repository
+public class PointsLedgerReader {
+
+    public static final RowMapper<PointsLogDto> ROW_MAPPER = (rs, rowNum) -> {
+        PointsLogDto dto = new PointsLogDto();
+        dto.setId(rs.getLong("id"));
+        dto.setUserId(rs.getLong("user_id"));
+        dto.setGoalId(rs.getObject("goal_id", Long.class));
+        dto.setPointsChange(rs.getObject("points_change", Integer.class));
+        dto.setReason(rs.getString("reason"));
+        dto.setLoggedAt(rs.getObject("logged_at", LocalDateTime.class));
+        return dto;
+    };
+
+    /**
+     * Position after the last row of a page; opaque to clients.
+     */
+    public record Cursor(LocalDateTime loggedAt, long id) {
+
+        public String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((loggedAt + "_" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Cursor decode(String value) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+                int separator = decoded.lastIndexOf('_');
+                return new Cursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                        Long.parseLong(decoded.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor", e);
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PointsLedgerReader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Up to limit rows after the cursor (null for the first page); reason and goalId are optional filters.
+     */
+    public List<PointsLogDto> page(Long userId, String reason, Long goalId, Cursor after, int limit) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, user_id, goal_id, points_change, reason, logged_at FROM points_log WHERE user_id = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+        if (reason != null) {
+            sql.append(" AND reason = ?");
+            args.add(reason);
+        }
+        if (goalId != null) {
+            sql.append(" AND goal_id = ?");
+            args.add(goalId);
+        }
+        if (after != null) {
+            // Expanded row comparison: (logged_at, id) < (?, ?)
+            sql.append(" AND (logged_at < ? OR (logged_at = ? AND id < ?))");
+            Timestamp loggedAt = Timestamp.valueOf(after.loggedAt());
+            args.add(loggedAt);
+            args.add(loggedAt);
+            args.add(after.id());
+        }
+        sql.append(" ORDER BY logged_at DESC, id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+}
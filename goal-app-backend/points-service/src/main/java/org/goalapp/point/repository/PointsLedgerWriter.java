@@ -0,0 +1,78 @@
+package org.goalapp.point.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch writer for points_log. PointsLog uses IDENTITY ids, so Hibernate would insert
+ * a consumer batch one statement at a time; here it goes out as multi-row inserts.
+ */
+@Repository
+public class PointsLedgerWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO points_log (user_id, goal_id, points_change, reason, logged_at, idempotency_key) VALUES (?, ?, ?, ?, ?, ?)";
+
+    /**
+     * One ledger row to insert; idempotencyKey is null for awards without an event id.
+     */
+    public record Entry(Long userId, Long goalId, int pointsChange, String reason, LocalDateTime loggedAt,
+                        String idempotencyKey) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${points.ledger.batch-size:200}")
+    private int batchSize;
+
+    public PointsLedgerWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert the rows and return their generated ids, in input order.
+     */
+    public List<Long> insert(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(entries.size());
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < entries.size(); from += batchSize) {
+                    for (Entry entry : entries.subList(from, Math.min(from + batchSize, entries.size()))) {
+                        ps.setLong(1, entry.userId());
+                        ps.setObject(2, entry.goalId(), Types.BIGINT);
+                        ps.setInt(3, entry.pointsChange());
+                        ps.setString(4, entry.reason());
+                        ps.setTimestamp(5, Timestamp.valueOf(entry.loggedAt()));
+                        ps.setString(6, entry.idempotencyKey());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            ids.add(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+        if (ids.size() != entries.size()) {
+            throw new IllegalStateException("Driver returned " + ids.size() + " generated keys for " + entries.size() + " ledger rows");
+        }
+        return ids;
+    }
+}
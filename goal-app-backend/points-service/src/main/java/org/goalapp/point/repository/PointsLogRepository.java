@@ -13,6 +13,7 @@ public interface PointsLogRepository extends JpaRepository<PointsLog, Long> {
     List<PointsLog> findByUserId(Long userId);
     List<PointsLog> findByGoalId(Long goalId);
     List<PointsLog> findByUserIdAndLoggedAtBetween(Long userId, LocalDateTime start, LocalDateTime end);
+    boolean existsByUserId(Long userId);
 
     @Query("SELECT SUM(pl.pointsChange) FROM PointsLog pl WHERE pl.userId = ?1")
     Integer getTotalPointsByUserId(Long userId);
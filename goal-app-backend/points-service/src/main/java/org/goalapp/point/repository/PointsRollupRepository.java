@@ -0,0 +1,27 @@
+package org.goalapp.point.repository;
+
+import org.goalapp.point.entities.PointsRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PointsRollupRepository extends JpaRepository<PointsRollup, PointsRollup.Key> {
+
+    // Buckets starting in [from, to), oldest first
+    @Query("SELECT r FROM PointsRollup r WHERE r.userId = ?1 AND r.bucket = ?2 AND r.bucketStart >= ?3 AND r.bucketStart < ?4 ORDER BY r.bucketStart")
+    List<PointsRollup> findSeries(Long userId, PointsRollup.Bucket bucket, LocalDateTime from, LocalDateTime to);
+
+    // Buckets in [from, to) in which the users gained points (streak rules)
+    @Query("SELECT r.userId AS userId, r.bucketStart AS bucketStart FROM PointsRollup r WHERE r.userId IN ?1 AND r.bucket = ?2 AND r.bucketStart >= ?3 AND r.bucketStart < ?4 AND r.pointsTotal > 0")
+    List<ActiveDay> findActiveDays(Collection<Long> userIds, PointsRollup.Bucket bucket, LocalDateTime from, LocalDateTime to);
+
+    interface ActiveDay {
+        Long getUserId();
+        LocalDateTime getBucketStart();
+    }
+}
@@ -0,0 +1,95 @@
+package org.goalapp.point.repository;
+
+import org.goalapp.point.entities.PointsRollup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC writer for points_rollups. Runs inside the ledger transaction after the users' balance
+ * rows are locked (PointsBalanceWriter), so a user's rollup rows only ever see one writer at a time.
+ */
+@Repository
+public class PointsRollupWriter {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO points_rollups (user_id, bucket, bucket_start, points_total, event_count) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE points_total = points_total + VALUES(points_total), " +
+            "event_count = event_count + VALUES(event_count)";
+
+    // History from before rollups existed, folded in when a user's balance row is first seeded
+    private static final String SEED_SQL =
+            "INSERT INTO points_rollups (user_id, bucket, bucket_start, points_total, event_count) " +
+            "SELECT user_id, :bucket, %s, SUM(points_change), COUNT(*) FROM points_log " +
+            "WHERE user_id IN (:userIds) GROUP BY user_id, %s " +
+            "ON DUPLICATE KEY UPDATE points_total = points_total + VALUES(points_total), " +
+            "event_count = event_count + VALUES(event_count)";
+
+    private static final Map<PointsRollup.Bucket, String> BUCKET_EXPRESSIONS = Map.of(
+            PointsRollup.Bucket.HOUR, "DATE_FORMAT(logged_at, '%Y-%m-%d %H:00:00')",
+            PointsRollup.Bucket.DAY, "DATE(logged_at)");
+
+    private record Key(Long userId, PointsRollup.Bucket bucket, LocalDateTime bucketStart) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public PointsRollupWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Add the ledger rows to their hour and day buckets: one upsert per touched bucket.
+     */
+    public void add(Collection<PointsLedgerWriter.Entry> entries) {
+        Map<Key, long[]> totals = new HashMap<>(); // {points, events}
+        for (PointsLedgerWriter.Entry entry : entries) {
+            for (PointsRollup.Bucket bucket : PointsRollup.Bucket.values()) {
+                long[] total = totals.computeIfAbsent(
+                        new Key(entry.userId(), bucket, bucket.truncate(entry.loggedAt())), key -> new long[2]);
+                total[0] += entry.pointsChange();
+                total[1]++;
+            }
+        }
+        if (totals.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Key, long[]>> rows = new ArrayList<>(totals.entrySet());
+        rows.sort(Comparator.comparing((Map.Entry<Key, long[]> row) -> row.getKey().userId())
+                .thenComparing(row -> row.getKey().bucket())
+                .thenComparing(row -> row.getKey().bucketStart()));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.getKey().userId());
+            ps.setString(2, row.getKey().bucket().name());
+            ps.setTimestamp(3, Timestamp.valueOf(row.getKey().bucketStart()));
+            ps.setLong(4, row.getValue()[0]);
+            ps.setLong(5, row.getValue()[1]);
+        });
+    }
+
+    /**
+     * Build the users' rollups from their existing ledger rows. Call with the users' balance rows locked.
+     */
+    public void seed(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        for (PointsRollup.Bucket bucket : PointsRollup.Bucket.values()) {
+            String expression = BUCKET_EXPRESSIONS.get(bucket);
+            namedJdbcTemplate.update(String.format(SEED_SQL, expression, expression), Map.of(
+                    "bucket", bucket.name(),
+                    "userIds", userIds));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.goalapp.point.repository;
+
+import org.goalapp.point.entities.UserPointsBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserPointsBalanceRepository extends JpaRepository<UserPointsBalance, Long> {
+}
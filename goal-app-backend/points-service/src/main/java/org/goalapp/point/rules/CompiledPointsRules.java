@@ -0,0 +1,187 @@
+package org.goalapp.point.rules;
+
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, array-backed form of PointsRulesProperties. Scoring is index arithmetic and short
+ * loops over primitive arrays; callers map strings to indexes with the static switch helpers,
+ * so nothing is allocated per event.
+ *
+ * Times are compared as naive local epoch seconds (LocalDateTime at UTC), the same way on both sides.
+ */
+public final class CompiledPointsRules {
+
+    public static final int REASON_COMPLETED = 0;
+    public static final int REASON_MISSED = 1;
+    public static final int REASON_OTHER = 2;
+
+    public static final int DIFFICULTY_EASY = 0;
+    public static final int DIFFICULTY_MEDIUM = 1;
+    public static final int DIFFICULTY_HARD = 2;
+    public static final int DIFFICULTY_OTHER = 3;
+    private static final int DIFFICULTIES = 4;
+
+    public static final int GOAL_TYPE_PERSONAL = 0;
+    public static final int GOAL_TYPE_SHARED = 1;
+    public static final int GOAL_TYPE_OTHER = 2;
+
+    // Deadline or streak unknown
+    public static final long UNKNOWN_SECONDS_BEFORE_DEADLINE = Long.MIN_VALUE;
+
+    private final int[] base;                  // [reason * DIFFICULTIES + difficulty], OTHER reason scores 0
+    private final double[] goalTypeMultipliers; // [goal type]
+    private final long[] earlySeconds;          // descending
+    private final double[] earlyMultipliers;
+    private final int[] streakDays;             // descending
+    private final double[] streakMultipliers;
+    private final long[] promoStarts;
+    private final long[] promoEnds;
+    private final double[] promoMultipliers;
+    private final int maxStreakDays;
+
+    CompiledPointsRules(PointsRulesProperties properties) {
+        base = new int[3 * DIFFICULTIES];
+        fill(REASON_COMPLETED, properties.getBase().getCompleted());
+        fill(REASON_MISSED, properties.getBase().getMissed());
+
+        goalTypeMultipliers = new double[]{
+                positive(properties.getGoalTypeMultipliers().getPersonal(), "goal-type-multipliers.personal"),
+                positive(properties.getGoalTypeMultipliers().getShared(), "goal-type-multipliers.shared"),
+                1.0};
+
+        List<PointsRulesProperties.EarlyCompletion> early = properties.getEarlyCompletion().stream()
+                .sorted(Comparator.comparingInt(PointsRulesProperties.EarlyCompletion::getHoursBefore).reversed())
+                .toList();
+        earlySeconds = new long[early.size()];
+        earlyMultipliers = new double[early.size()];
+        for (int i = 0; i < early.size(); i++) {
+            earlySeconds[i] = early.get(i).getHoursBefore() * 3600L;
+            earlyMultipliers[i] = positive(early.get(i).getMultiplier(), "early-completion.multiplier");
+        }
+
+        List<PointsRulesProperties.Streak> streaks = properties.getStreaks().stream()
+                .sorted(Comparator.comparingInt(PointsRulesProperties.Streak::getMinDays).reversed())
+                .toList();
+        streakDays = new int[streaks.size()];
+        streakMultipliers = new double[streaks.size()];
+        for (int i = 0; i < streaks.size(); i++) {
+            if (streaks.get(i).getMinDays() < 1) {
+                throw new IllegalArgumentException("streaks.min-days must be at least 1");
+            }
+            streakDays[i] = streaks.get(i).getMinDays();
+            streakMultipliers[i] = positive(streaks.get(i).getMultiplier(), "streaks.multiplier");
+        }
+        maxStreakDays = streakDays.length > 0 ? streakDays[0] : 0;
+
+        List<PointsRulesProperties.Promo> promos = properties.getPromos();
+        promoStarts = new long[promos.size()];
+        promoEnds = new long[promos.size()];
+        promoMultipliers = new double[promos.size()];
+        for (int i = 0; i < promos.size(); i++) {
+            PointsRulesProperties.Promo promo = promos.get(i);
+            if (promo.getStart() == null || promo.getEnd() == null || !promo.getEnd().isAfter(promo.getStart())) {
+                throw new IllegalArgumentException("Promo " + promo.getName() + " needs a start before its end");
+            }
+            promoStarts[i] = promo.getStart().toEpochSecond(ZoneOffset.UTC);
+            promoEnds[i] = promo.getEnd().toEpochSecond(ZoneOffset.UTC);
+            promoMultipliers[i] = positive(promo.getMultiplier(), "promos.multiplier");
+        }
+    }
+
+    /**
+     * Points for one event.
+     *
+     * @param secondsBeforeDeadline deadline minus completion time, or UNKNOWN_SECONDS_BEFORE_DEADLINE
+     * @param streakDays            consecutive days with points before the event's day
+     * @param occurredAtEpochSecond event time as local epoch seconds
+     */
+    public int evaluate(int reason, int difficulty, int goalType, long secondsBeforeDeadline,
+                        int streakDays, long occurredAtEpochSecond) {
+        if (reason == REASON_OTHER) {
+            return 0;
+        }
+        int points = base[reason * DIFFICULTIES + difficulty];
+        if (points <= 0) {
+            return points;
+        }
+
+        double multiplier = goalTypeMultipliers[goalType];
+        if (secondsBeforeDeadline != UNKNOWN_SECONDS_BEFORE_DEADLINE) {
+            for (int i = 0; i < earlySeconds.length; i++) {
+                if (secondsBeforeDeadline >= earlySeconds[i]) {
+                    multiplier *= earlyMultipliers[i];
+                    break;
+                }
+            }
+        }
+        for (int i = 0; i < this.streakDays.length; i++) {
+            if (streakDays >= this.streakDays[i]) {
+                multiplier *= streakMultipliers[i];
+                break;
+            }
+        }
+        for (int i = 0; i < promoStarts.length; i++) {
+            if (occurredAtEpochSecond >= promoStarts[i] && occurredAtEpochSecond < promoEnds[i]) {
+                multiplier *= promoMultipliers[i];
+            }
+        }
+        return (int) Math.round(points * multiplier);
+    }
+
+    /**
+     * Longest streak any tier looks at; 0 means streaks need not be computed at all.
+     */
+    public int maxStreakDays() {
+        return maxStreakDays;
+    }
+
+    public static int reasonIndex(String reason) {
+        if (reason == null) {
+            return REASON_OTHER;
+        }
+        return switch (reason) {
+            case "GOAL_COMPLETED" -> REASON_COMPLETED;
+            case "GOAL_MISSED" -> REASON_MISSED;
+            default -> REASON_OTHER;
+        };
+    }
+
+    public static int difficultyIndex(String difficulty) {
+        if (difficulty == null) {
+            return DIFFICULTY_OTHER;
+        }
+        return switch (difficulty) {
+            case "EASY" -> DIFFICULTY_EASY;
+            case "MEDIUM" -> DIFFICULTY_MEDIUM;
+            case "HARD" -> DIFFICULTY_HARD;
+            default -> DIFFICULTY_OTHER;
+        };
+    }
+
+    public static int goalTypeIndex(String goalType) {
+        if (goalType == null) {
+            return GOAL_TYPE_OTHER;
+        }
+        return switch (goalType) {
+            case "PERSONAL" -> GOAL_TYPE_PERSONAL;
+            case "SHARED" -> GOAL_TYPE_SHARED;
+            default -> GOAL_TYPE_OTHER;
+        };
+    }
+
+    private void fill(int reason, PointsRulesProperties.ByDifficulty points) {
+        base[reason * DIFFICULTIES + DIFFICULTY_EASY] = points.getEasy();
+        base[reason * DIFFICULTIES + DIFFICULTY_MEDIUM] = points.getMedium();
+        base[reason * DIFFICULTIES + DIFFICULTY_HARD] = points.getHard();
+        base[reason * DIFFICULTIES + DIFFICULTY_OTHER] = points.getOther();
+    }
+
+    private static double positive(double multiplier, String name) {
+        if (!(multiplier > 0)) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return multiplier;
+    }
+}
@@ -0,0 +1,90 @@
+package org.goalapp.point.rules;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Loads the points rules from points.rules.location, compiles them and swaps them in atomically.
+ * The file is polled for changes; a file that does not bind or compile is logged and ignored,
+ * and the previous rules stay active.
+ */
+@Component
+public class PointsRulesEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(PointsRulesEngine.class);
+
+    private final ResourceLoader resourceLoader;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${points.rules.location:classpath:points-rules.yml}")
+    private String location;
+
+    private volatile CompiledPointsRules rules = new CompiledPointsRules(new PointsRulesProperties());
+    private volatile long loadedModified = -1;
+
+    public PointsRulesEngine(ResourceLoader resourceLoader, MeterRegistry meterRegistry) {
+        this.resourceLoader = resourceLoader;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void load() {
+        reloadIfChanged();
+    }
+
+    public CompiledPointsRules rules() {
+        return rules;
+    }
+
+    @Scheduled(fixedDelayString = "${points.rules.reload-interval-ms:30000}")
+    public void reloadIfChanged() {
+        Resource resource = resourceLoader.getResource(location);
+        try {
+            if (!resource.exists()) {
+                if (loadedModified == -1) {
+                    log.warn("Points rules {} not found, using the built-in defaults", location);
+                    loadedModified = 0;
+                }
+                return;
+            }
+            long modified = lastModified(resource);
+            if (modified == loadedModified) {
+                return;
+            }
+            List<PropertySource<?>> sources = new YamlPropertySourceLoader().load("points-rules", resource);
+            PointsRulesProperties properties = new Binder(ConfigurationPropertySources.from(sources))
+                    .bind("points.rules", Bindable.of(PointsRulesProperties.class))
+                    .orElseGet(PointsRulesProperties::new);
+            rules = new CompiledPointsRules(properties);
+            loadedModified = modified;
+            meterRegistry.counter("points.rules.reloads", "outcome", "success").increment();
+            log.info("✅ Loaded points rules from {}", location);
+        } catch (IOException | RuntimeException e) {
+            meterRegistry.counter("points.rules.reloads", "outcome", "failure").increment();
+            log.error("❌ Could not load points rules from {}, keeping the previous rules: {}", location, e.getMessage());
+        }
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return 0; // e.g. inside a jar: loaded once, never changes
+        }
+    }
+}
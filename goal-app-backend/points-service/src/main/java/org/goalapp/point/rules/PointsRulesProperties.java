@@ -0,0 +1,140 @@
+package org.goalapp.point.rules;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shape of the points rules file (points.rules.* in points-rules.yml). Bound by PointsRulesEngine
+ * and compiled into CompiledPointsRules; nothing reads these objects while scoring.
+ *
+ * Multipliers only scale awards (positive base points); penalties always use the base table.
+ */
+public class PointsRulesProperties {
+
+    private Base base = new Base();
+    private GoalTypeMultipliers goalTypeMultipliers = new GoalTypeMultipliers();
+    private List<EarlyCompletion> earlyCompletion = new ArrayList<>();
+    private List<Streak> streaks = new ArrayList<>();
+    private List<Promo> promos = new ArrayList<>();
+
+    public Base getBase() { return base; }
+    public void setBase(Base base) { this.base = base; }
+
+    public GoalTypeMultipliers getGoalTypeMultipliers() { return goalTypeMultipliers; }
+    public void setGoalTypeMultipliers(GoalTypeMultipliers goalTypeMultipliers) { this.goalTypeMultipliers = goalTypeMultipliers; }
+
+    public List<EarlyCompletion> getEarlyCompletion() { return earlyCompletion; }
+    public void setEarlyCompletion(List<EarlyCompletion> earlyCompletion) { this.earlyCompletion = earlyCompletion; }
+
+    public List<Streak> getStreaks() { return streaks; }
+    public void setStreaks(List<Streak> streaks) { this.streaks = streaks; }
+
+    public List<Promo> getPromos() { return promos; }
+    public void setPromos(List<Promo> promos) { this.promos = promos; }
+
+    /**
+     * Base points per reason and difficulty; "other" covers unknown difficulties.
+     */
+    public static class Base {
+        private ByDifficulty completed = new ByDifficulty(10, 20, 30, 15);
+        private ByDifficulty missed = new ByDifficulty(-5, -10, -15, -10);
+
+        public ByDifficulty getCompleted() { return completed; }
+        public void setCompleted(ByDifficulty completed) { this.completed = completed; }
+
+        public ByDifficulty getMissed() { return missed; }
+        public void setMissed(ByDifficulty missed) { this.missed = missed; }
+    }
+
+    public static class ByDifficulty {
+        private int easy;
+        private int medium;
+        private int hard;
+        private int other;
+
+        public ByDifficulty() {
+        }
+
+        public ByDifficulty(int easy, int medium, int hard, int other) {
+            this.easy = easy;
+            this.medium = medium;
+            this.hard = hard;
+            this.other = other;
+        }
+
+        public int getEasy() { return easy; }
+        public void setEasy(int easy) { this.easy = easy; }
+
+        public int getMedium() { return medium; }
+        public void setMedium(int medium) { this.medium = medium; }
+
+        public int getHard() { return hard; }
+        public void setHard(int hard) { this.hard = hard; }
+
+        public int getOther() { return other; }
+        public void setOther(int other) { this.other = other; }
+    }
+
+    public static class GoalTypeMultipliers {
+        private double personal = 1.0;
+        private double shared = 1.0;
+
+        public double getPersonal() { return personal; }
+        public void setPersonal(double personal) { this.personal = personal; }
+
+        public double getShared() { return shared; }
+        public void setShared(double shared) { this.shared = shared; }
+    }
+
+    /**
+     * Applies when the goal was completed at least hoursBefore hours before its deadline;
+     * the highest matching tier wins.
+     */
+    public static class EarlyCompletion {
+        private int hoursBefore;
+        private double multiplier = 1.0;
+
+        public int getHoursBefore() { return hoursBefore; }
+        public void setHoursBefore(int hoursBefore) { this.hoursBefore = hoursBefore; }
+
+        public double getMultiplier() { return multiplier; }
+        public void setMultiplier(double multiplier) { this.multiplier = multiplier; }
+    }
+
+    /**
+     * Applies when the user earned points on each of the last minDays days; the highest matching tier wins.
+     */
+    public static class Streak {
+        private int minDays;
+        private double multiplier = 1.0;
+
+        public int getMinDays() { return minDays; }
+        public void setMinDays(int minDays) { this.minDays = minDays; }
+
+        public double getMultiplier() { return multiplier; }
+        public void setMultiplier(double multiplier) { this.multiplier = multiplier; }
+    }
+
+    /**
+     * Applies to events in [start, end); overlapping promos multiply.
+     */
+    public static class Promo {
+        private String name;
+        private LocalDateTime start;
+        private LocalDateTime end;
+        private double multiplier = 1.0;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public LocalDateTime getStart() { return start; }
+        public void setStart(LocalDateTime start) { this.start = start; }
+
+        public LocalDateTime getEnd() { return end; }
+        public void setEnd(LocalDateTime end) { this.end = end; }
+
+        public double getMultiplier() { return multiplier; }
+        public void setMultiplier(double multiplier) { this.multiplier = multiplier; }
+    }
+}
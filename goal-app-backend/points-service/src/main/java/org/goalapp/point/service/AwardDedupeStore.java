@@ -0,0 +1,85 @@
+package org.goalapp.point.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers which awards were already written to the ledger, keyed by idempotency key.
+ * A bounded LRU map answers most redeliveries without touching the database; the unique
+ * idempotency_key column on points_log is the source of truth across restarts and instances.
+ */
+@Component
+public class AwardDedupeStore {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Map<String, Long> recent; // idempotency key -> ledger id
+
+    public AwardDedupeStore(NamedParameterJdbcTemplate jdbcTemplate,
+                            @Value("${points.idempotency.recent-keys:100000}") int cacheSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Key for one award, or null when there is no event id to dedupe on.
+     */
+    public static String key(Long userId, Long goalId, String reason, String eventId) {
+        if (eventId == null || eventId.isBlank()) {
+            return null;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((userId + "|" + goalId + "|" + reason + "|" + eventId).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Ledger id of a recently recorded award, from memory only.
+     */
+    public Long recentId(String key) {
+        return recent.get(key);
+    }
+
+    /**
+     * Ledger ids of the keys already in points_log. Callers hold the users' balance locks,
+     * so no other writer can insert one of these keys until they commit.
+     */
+    public Map<String, Long> findExisting(Collection<String> keys) {
+        Map<String, Long> existing = new HashMap<>();
+        if (keys.isEmpty()) {
+            return existing;
+        }
+        jdbcTemplate.query("SELECT idempotency_key, id FROM points_log WHERE idempotency_key IN (:keys)",
+                Map.of("keys", keys),
+                rs -> {
+                    existing.put(rs.getString("idempotency_key"), rs.getLong("id"));
+                });
+        return existing;
+    }
+
+    /**
+     * Cache keys once their transaction has committed.
+     */
+    public void remember(Map<String, Long> keys) {
+        recent.putAll(keys);
+    }
+}
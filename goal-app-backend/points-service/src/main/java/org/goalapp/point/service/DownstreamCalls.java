@@ -0,0 +1,103 @@
+package org.goalapp.point.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Timeout, jittered retry and metrics around one downstream call.
+ *
+ * Metrics: points.downstream.calls{client,operation,outcome} times each call including its retries,
+ * points.downstream.retries{client,operation} counts retried attempts.
+ */
+@Component
+public class DownstreamCalls {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${downstream.call-timeout-ms:3000}")
+    private long callTimeoutMs;
+
+    @Value("${downstream.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${downstream.retry-backoff-ms:100}")
+    private long retryBackoffMs;
+
+    // Caps concurrent calls issued from one consumer batch
+    @Value("${downstream.max-in-flight:16}")
+    private int maxInFlight;
+
+    public DownstreamCalls(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public int maxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Wrap a cold request. Idempotent calls are retried on any transient failure; other calls only
+     * when the connection could not be opened, so a timed-out request is never applied twice.
+     */
+    public <T> Mono<T> call(String client, String operation, boolean idempotent, Mono<T> request) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return request
+                    .timeout(Duration.ofMillis(callTimeoutMs))
+                    .retryWhen(Retry.backoff(Math.max(0, maxAttempts - 1), Duration.ofMillis(retryBackoffMs))
+                            .jitter(0.5)
+                            .filter(e -> idempotent ? isTransient(e) : isConnectFailure(e))
+                            .doBeforeRetry(signal -> meterRegistry.counter("points.downstream.retries",
+                                    "client", client, "operation", operation).increment())
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                    .doOnSuccess(value -> record(client, operation, "success", start))
+                    .doOnError(e -> record(client, operation, outcome(e), start));
+        });
+    }
+
+    private void record(String client, String operation, String outcome, long start) {
+        Timer.builder("points.downstream.calls")
+                .tag("client", client)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static boolean isTransient(Throwable e) {
+        if (e instanceof WebClientRequestException || e instanceof TimeoutException) {
+            return true;
+        }
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError()
+                    || response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+        }
+        return false;
+    }
+
+    private static boolean isConnectFailure(Throwable e) {
+        return e instanceof WebClientRequestException && e.getCause() instanceof ConnectException;
+    }
+
+    private static String outcome(Throwable e) {
+        if (e instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().is4xxClientError() ? "client_error" : "server_error";
+        }
+        return "error";
+    }
+}
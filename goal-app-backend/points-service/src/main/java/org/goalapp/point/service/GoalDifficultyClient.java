@@ -0,0 +1,40 @@
+package org.goalapp.point.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Looks up a goal's difficulty in goal-service, for records published as NotificationEvent
+ * before goal-service switched to GoalLifecycleEvent (which carries the difficulty itself).
+ */
+@Component
+public class GoalDifficultyClient {
+
+    private static final String DEFAULT_DIFFICULTY = "MEDIUM";
+
+    private final WebClient goalServiceWebClient;
+    private final DownstreamCalls downstreamCalls;
+
+    public GoalDifficultyClient(@Qualifier("goalServiceWebClient") WebClient goalServiceWebClient,
+                                DownstreamCalls downstreamCalls) {
+        this.goalServiceWebClient = goalServiceWebClient;
+        this.downstreamCalls = downstreamCalls;
+    }
+
+    /**
+     * Never fails: unknown goals and errors fall back to MEDIUM, as before.
+     */
+    public Mono<String> getGoalDifficulty(Long goalId) {
+        Mono<JsonNode> request = goalServiceWebClient.get()
+                .uri("/api/goals/{id}", goalId)
+                .retrieve()
+                .bodyToMono(JsonNode.class); // decoded by the shared codec, no ObjectMapper per response
+        return downstreamCalls.call("goal-service", "get-goal", true, request)
+                .map(goal -> goal.hasNonNull("difficulty") ? goal.get("difficulty").asText() : DEFAULT_DIFFICULTY)
+                .onErrorReturn(DEFAULT_DIFFICULTY)
+                .defaultIfEmpty(DEFAULT_DIFFICULTY);
+    }
+}
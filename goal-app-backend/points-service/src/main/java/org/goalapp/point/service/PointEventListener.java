@@ -1,59 +1,90 @@
 package org.goalapp.point.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.goalapp.common.dto.GoalLifecycleEvent;
 import org.goalapp.common.dto.NotificationEvent;
+import org.goalapp.common.kafka.KafkaTopics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
 
+/**
+ * Record-at-a-time consumer, kept for comparison with PointsBatchListener
+ * (points.consumer.batch-enabled=false).
+ */
 @Component
+@ConditionalOnProperty(name = "points.consumer.batch-enabled", havingValue = "false")
+@KafkaListener(topics = KafkaTopics.POINTS, groupId = "points-service-group")
 public class PointEventListener {
 
+    private static final Logger log = LoggerFactory.getLogger(PointEventListener.class);
+
     @Autowired
     private PointsService pointsService;
 
     @Autowired
-    private WebClient.Builder webClientBuilder;
+    private GoalDifficultyClient goalDifficultyClient;
 
-    @KafkaListener(topics = "points-topic", groupId = "points-service-group")
-    public void handlePointsEvent(NotificationEvent event) {
-        try {
-            // Get goal details to determine difficulty
-            String difficulty = getGoalDifficulty(event.getRelatedId());
+    @Autowired
+    private MeterRegistry meterRegistry;
 
-            pointsService.addPoints(
+    @KafkaHandler
+    public void handleGoalLifecycleEvent(GoalLifecycleEvent event,
+                                         @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                         @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                                         @Header(KafkaHeaders.OFFSET) long offset) {
+        try {
+            // Difficulty travels with the event - no call back into goal-service
+            pointsService.addPoints(new PointsService.PointAward(
                     event.getUserId(),
-                    event.getRelatedId(),
+                    event.getGoalId(),
                     event.getType(),
-                    difficulty
-            );
+                    event.getDifficulty() != null ? event.getDifficulty() : "MEDIUM",
+                    event.getGoalType(),
+                    event.getDeadline(),
+                    event.getTimestamp(),
+                    event.getEventId() != null ? event.getEventId()
+                            : PointsBatchListener.eventId(topic, partition, offset)
+            ));
+            meterRegistry.counter("points.events.consumed", "mode", "record").increment();
 
-        } catch (Exception e) {
-            System.err.println("Error processing points event: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // Rethrown so the container's error handler sees it: retried, then logged and skipped by default
+            log.error("Error processing goal lifecycle event {} at {}-{}@{}", event.getEventId(), topic, partition, offset, e);
+            throw e;
         }
     }
 
-    private String getGoalDifficulty(Long goalId) {
+    /**
+     * Records published as NotificationEvent before goal-service switched to GoalLifecycleEvent.
+     */
+    @KafkaHandler
+    public void handlePointsEvent(NotificationEvent event,
+                                  @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                  @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                                  @Header(KafkaHeaders.OFFSET) long offset) {
         try {
-            // Call goal service to get goal details
-            return webClientBuilder.build()
-                    .get()
-                    .uri("http://localhost:8082/api/goals/{id}", goalId)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .map(response -> {
-                        try {
-                            ObjectMapper mapper = new ObjectMapper();
-                            var goalData = mapper.readTree(response);
-                            return goalData.get("difficulty").asText();
-                        } catch (Exception e) {
-                            return "MEDIUM"; // default
-                        }
-                    })
-                    .block();
-        } catch (Exception e) {
-            return "MEDIUM"; // default fallback
+            // Get goal details to determine difficulty; the award cannot be scored, nor the offset committed, without it
+            String difficulty = goalDifficultyClient.getGoalDifficulty(event.getRelatedId()).block();
+
+            pointsService.addPoints(
+                    event.getUserId(),
+                    event.getRelatedId(),
+                    event.getType(),
+                    difficulty,
+                    PointsBatchListener.eventId(topic, partition, offset)
+            );
+            meterRegistry.counter("points.events.consumed", "mode", "record").increment();
+
+        } catch (RuntimeException e) {
+            log.error("Error processing points event at {}-{}@{}", topic, partition, offset, e);
+            throw e;
         }
     }
 }
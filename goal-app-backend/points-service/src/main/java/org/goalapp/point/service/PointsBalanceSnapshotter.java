@@ -0,0 +1,160 @@
+package org.goalapp.point.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.goalapp.point.repository.PointsLedgerWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the monthly balance snapshots behind point-in-time queries (PointsBalanceHistoryReader).
+ *
+ * Once a month has closed (plus points.snapshots.grace-minutes, for awards still committing), every user
+ * with day rollups in it gets a snapshot at the next month's start: their previous snapshot plus the day
+ * rollups since. Users are processed in keyset chunks and the upsert is idempotent, so a run that dies
+ * part-way resumes after the last user it wrote.
+ */
+@Service
+public class PointsBalanceSnapshotter {
+
+    private static final Logger log = LoggerFactory.getLogger(PointsBalanceSnapshotter.class);
+
+    private static final String ACTIVE_USERS_SQL =
+            "SELECT DISTINCT user_id FROM points_rollups " +
+            "WHERE bucket = 'DAY' AND bucket_start >= :from AND bucket_start < :at AND user_id > :afterUserId " +
+            "ORDER BY user_id LIMIT :limit";
+
+    private static final String RESUME_SQL =
+            "SELECT COALESCE(MAX(user_id), 0) FROM points_balance_snapshots WHERE snapshot_at = :at";
+
+    private static final String PREVIOUS_SQL =
+            "SELECT user_id, MAX(snapshot_at) AS snapshot_at FROM points_balance_snapshots " +
+            "WHERE user_id IN (:userIds) AND snapshot_at < :at GROUP BY user_id";
+
+    // Previous balance plus the day rollups since it; no previous snapshot means all rollups so far
+    private static final String BALANCES_SQL =
+            "SELECT r.user_id, COALESCE(MAX(s.balance), 0) + SUM(r.points_total) AS balance " +
+            "FROM points_rollups r " +
+            "LEFT JOIN (" + PREVIOUS_SQL + ") p ON p.user_id = r.user_id " +
+            "LEFT JOIN points_balance_snapshots s ON s.user_id = p.user_id AND s.snapshot_at = p.snapshot_at " +
+            "WHERE r.user_id IN (:userIds) AND r.bucket = 'DAY' AND r.bucket_start < :at " +
+            "AND (p.snapshot_at IS NULL OR r.bucket_start >= p.snapshot_at) " +
+            "GROUP BY r.user_id";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO points_balance_snapshots (user_id, snapshot_at, balance) VALUES (:userId, :at, :balance) " +
+            "ON DUPLICATE KEY UPDATE balance = VALUES(balance)";
+
+    private static final String ADJUST_SQL =
+            "UPDATE points_balance_snapshots SET balance = balance + :pointsChange " +
+            "WHERE user_id = :userId AND snapshot_at > :loggedAt";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Counter snapshotCounter;
+
+    // Last snapshot time fully written by this instance; a restart re-checks it once
+    private volatile LocalDateTime completedAt;
+
+    @Value("${points.snapshots.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${points.snapshots.grace-minutes:60}")
+    private long graceMinutes;
+
+    public PointsBalanceSnapshotter(NamedParameterJdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotCounter = Counter.builder("points.balance.snapshots")
+                .description("Monthly user balance snapshots written")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${points.snapshots.interval-ms:3600000}",
+            fixedDelayString = "${points.snapshots.interval-ms:3600000}")
+    public void snapshotLatestMonth() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime at = now.toLocalDate().withDayOfMonth(1).atStartOfDay();
+        if (now.isBefore(at.plusMinutes(graceMinutes))) {
+            at = at.minusMonths(1);
+        }
+        if (at.equals(completedAt)) {
+            return;
+        }
+        int written = snapshot(at);
+        completedAt = at;
+        log.info("Wrote {} points balance snapshots at {}", written, at);
+    }
+
+    /**
+     * Snapshot, at the given month start, every user who earned points in the month before it.
+     */
+    public int snapshot(LocalDateTime at) {
+        LocalDateTime from = at.minusMonths(1);
+        Timestamp atParam = Timestamp.valueOf(at);
+        Long resumeAfter = jdbcTemplate.queryForObject(RESUME_SQL, Map.of("at", atParam), Long.class);
+        long afterUserId = resumeAfter != null ? resumeAfter : 0;
+        int written = 0;
+        while (true) {
+            List<Long> userIds = jdbcTemplate.queryForList(ACTIVE_USERS_SQL, new MapSqlParameterSource()
+                            .addValue("from", Timestamp.valueOf(from))
+                            .addValue("at", atParam)
+                            .addValue("afterUserId", afterUserId)
+                            .addValue("limit", chunkSize),
+                    Long.class);
+            if (userIds.isEmpty()) {
+                break;
+            }
+
+            Map<Long, Long> balances = new HashMap<>();
+            jdbcTemplate.query(BALANCES_SQL, new MapSqlParameterSource("userIds", userIds).addValue("at", atParam),
+                    rs -> {
+                        balances.put(rs.getLong("user_id"), rs.getLong("balance"));
+                    });
+            List<MapSqlParameterSource> rows = new ArrayList<>(userIds.size());
+            for (Long userId : userIds) {
+                rows.add(new MapSqlParameterSource("userId", userId)
+                        .addValue("at", atParam)
+                        .addValue("balance", balances.getOrDefault(userId, 0L)));
+            }
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows.toArray(new MapSqlParameterSource[0]));
+            snapshotCounter.increment(rows.size());
+            written += rows.size();
+
+            if (userIds.size() < chunkSize) {
+                break;
+            }
+            afterUserId = userIds.get(userIds.size() - 1);
+        }
+        return written;
+    }
+
+    /**
+     * Fold ledger rows dated before the current month (awards drained late from the write-behind log)
+     * into the snapshots already taken after them. Runs inside the caller's ledger transaction.
+     */
+    public void applyLate(List<PointsLedgerWriter.Entry> entries) {
+        LocalDateTime monthStart = LocalDateTime.now().toLocalDate().withDayOfMonth(1).atStartOfDay();
+        List<MapSqlParameterSource> rows = new ArrayList<>();
+        for (PointsLedgerWriter.Entry entry : entries) {
+            if (entry.loggedAt().isBefore(monthStart)) {
+                rows.add(new MapSqlParameterSource("userId", entry.userId())
+                        .addValue("loggedAt", Timestamp.valueOf(entry.loggedAt()))
+                        .addValue("pointsChange", entry.pointsChange()));
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADJUST_SQL, rows.toArray(new MapSqlParameterSource[0]));
+        }
+    }
+}
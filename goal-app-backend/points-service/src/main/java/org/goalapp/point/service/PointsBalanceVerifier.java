@@ -0,0 +1,148 @@
+package org.goalapp.point.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks user_points_balance against the ledger without re-summing whole histories: each user's
+ * checkpoint records a ledger id and the verified balance up to it, so a run only sums the rows
+ * added since. Matching balances move the checkpoint forward; mismatches are logged and counted
+ * (points.balance.mismatches) and keep their old checkpoint until someone looks at them.
+ *
+ * Works in keyset chunks by user id. Each chunk reads balances and ledger sums in one
+ * REPEATABLE READ snapshot; balances and ledger rows commit together, so the snapshot is consistent.
+ */
+@Service
+public class PointsBalanceVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(PointsBalanceVerifier.class);
+
+    private static final String SELECT_BALANCES_SQL =
+            "SELECT b.user_id, b.balance, b.last_log_id, c.through_log_id, c.balance AS checkpoint_balance " +
+            "FROM user_points_balance b LEFT JOIN points_balance_checkpoints c ON c.user_id = b.user_id " +
+            "WHERE b.user_id > :afterUserId AND b.last_log_id >= 0 ORDER BY b.user_id LIMIT :limit";
+
+    // Only ledger rows after each user's checkpoint and up to the balance's cut
+    private static final String SUM_SINCE_CHECKPOINT_SQL =
+            "SELECT l.user_id, SUM(l.points_change) AS delta FROM points_log l " +
+            "JOIN user_points_balance b ON b.user_id = l.user_id " +
+            "LEFT JOIN points_balance_checkpoints c ON c.user_id = l.user_id " +
+            "WHERE l.user_id IN (:userIds) AND l.id > COALESCE(c.through_log_id, 0) AND l.id <= b.last_log_id " +
+            "GROUP BY l.user_id";
+
+    private static final String UPSERT_CHECKPOINT_SQL =
+            "INSERT INTO points_balance_checkpoints (user_id, through_log_id, balance, checked_at) " +
+            "VALUES (:userId, :throughLogId, :balance, :checkedAt) " +
+            "ON DUPLICATE KEY UPDATE through_log_id = VALUES(through_log_id), balance = VALUES(balance), " +
+            "checked_at = VALUES(checked_at)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter verifiedCounter;
+    private final Counter mismatchCounter;
+
+    @Value("${points.balance.verify-chunk-size:500}")
+    private int chunkSize;
+
+    public PointsBalanceVerifier(NamedParameterJdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.verifiedCounter = Counter.builder("points.balance.verified")
+                .description("User balances that matched the ledger")
+                .register(meterRegistry);
+        this.mismatchCounter = Counter.builder("points.balance.mismatches")
+                .description("User balances that did not match the ledger")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${points.balance.verify-interval-ms:3600000}",
+            fixedDelayString = "${points.balance.verify-interval-ms:3600000}")
+    public void verifyAll() {
+        long afterUserId = 0;
+        int checked = 0;
+        int mismatches = 0;
+        while (true) {
+            long after = afterUserId;
+            ChunkResult result = transactionTemplate.execute(status -> verifyChunk(after));
+            if (result == null || result.checked() == 0) {
+                break;
+            }
+            checked += result.checked();
+            mismatches += result.mismatches();
+            if (result.checked() < chunkSize) {
+                break;
+            }
+            afterUserId = result.lastUserId();
+        }
+        log.info("Verified {} user balances against the ledger, {} mismatches", checked, mismatches);
+    }
+
+    private ChunkResult verifyChunk(long afterUserId) {
+        List<Row> rows = jdbcTemplate.query(SELECT_BALANCES_SQL,
+                new MapSqlParameterSource("afterUserId", afterUserId).addValue("limit", chunkSize),
+                (rs, rowNum) -> new Row(rs.getLong("user_id"), rs.getLong("balance"), rs.getLong("last_log_id"),
+                        rs.getLong("through_log_id"), rs.getLong("checkpoint_balance")));
+        if (rows.isEmpty()) {
+            return new ChunkResult(0, 0, afterUserId);
+        }
+
+        Map<Long, Long> sums = new HashMap<>();
+        jdbcTemplate.query(SUM_SINCE_CHECKPOINT_SQL,
+                new MapSqlParameterSource("userIds", rows.stream().map(Row::userId).toList()),
+                rs -> {
+                    sums.put(rs.getLong("user_id"), rs.getLong("delta"));
+                });
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<MapSqlParameterSource> checkpoints = new ArrayList<>();
+        int mismatches = 0;
+        for (Row row : rows) {
+            // No checkpoint yet: through_log_id and checkpoint_balance read as 0
+            long expected = row.checkpointBalance() + sums.getOrDefault(row.userId(), 0L);
+            if (expected != row.balance()) {
+                mismatches++;
+                mismatchCounter.increment();
+                log.error("❌ Points balance mismatch: userId={}, balance={}, ledger={} (through log id {})",
+                        row.userId(), row.balance(), expected, row.lastLogId());
+                continue;
+            }
+            verifiedCounter.increment();
+            if (row.lastLogId() > row.throughLogId()) {
+                checkpoints.add(new MapSqlParameterSource("userId", row.userId())
+                        .addValue("throughLogId", row.lastLogId())
+                        .addValue("balance", row.balance())
+                        .addValue("checkedAt", now));
+            }
+        }
+        if (!checkpoints.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_CHECKPOINT_SQL, checkpoints.toArray(new MapSqlParameterSource[0]));
+        }
+        return new ChunkResult(rows.size(), mismatches, rows.get(rows.size() - 1).userId());
+    }
+
+    private record Row(long userId, long balance, long lastLogId, long throughLogId, long checkpointBalance) {
+    }
+
+    private record ChunkResult(int checked, int mismatches, long lastUserId) {
+    }
+}
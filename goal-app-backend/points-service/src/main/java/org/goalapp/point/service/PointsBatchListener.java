@@ -0,0 +1,124 @@
+package org.goalapp.point.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.goalapp.common.dto.GoalLifecycleEvent;
+import org.goalapp.common.dto.NotificationEvent;
+import org.goalapp.common.kafka.KafkaTopics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Consumes whole poll batches from the points topic: one ledger batch insert and one
+ * user-service call per user per batch. Events are keyed by user, so each user's events
+ * stay on one partition and one listener thread.
+ *
+ * Throughput: points.events.consumed{mode=batch} (rate = events/sec), compared with
+ * {mode=record} when the record listener is enabled instead; points.events.batch times each batch.
+ */
+@Component
+@ConditionalOnProperty(name = "points.consumer.batch-enabled", havingValue = "true", matchIfMissing = true)
+public class PointsBatchListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PointsBatchListener.class);
+
+    private final PointsService pointsService;
+    private final GoalDifficultyClient goalDifficultyClient;
+    private final DownstreamCalls downstreamCalls;
+    private final MeterRegistry meterRegistry;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+
+    public PointsBatchListener(PointsService pointsService, GoalDifficultyClient goalDifficultyClient,
+                               DownstreamCalls downstreamCalls, MeterRegistry meterRegistry) {
+        this.pointsService = pointsService;
+        this.goalDifficultyClient = goalDifficultyClient;
+        this.downstreamCalls = downstreamCalls;
+        this.meterRegistry = meterRegistry;
+        this.batchTimer = Timer.builder("points.events.batch")
+                .description("Time to score and record one consumer batch of points events")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("points.events.batch.size")
+                .description("Records per points consumer batch")
+                .register(meterRegistry);
+    }
+
+    // A scoring or ledger failure rethrows so the container's error handler redelivers the batch (already
+    // recorded awards are dropped by event id). A failed user-service push does not: UserPointsClient only
+    // counts it, and user-service is brought back in line with the ledger by PointsReconciliationService.
+    @KafkaListener(topics = KafkaTopics.POINTS, groupId = "points-service-group", batch = "true")
+    public void handleBatch(List<ConsumerRecord<String, Object>> records) {
+        batchSize.record(records.size());
+        batchTimer.record(() -> {
+            List<PointsService.PointAward> awards = new ArrayList<>(records.size());
+            Map<Long, String> legacyDifficulties = legacyDifficulties(records);
+
+            for (ConsumerRecord<String, Object> record : records) {
+                Object value = record.value();
+                if (value instanceof GoalLifecycleEvent event) {
+                    awards.add(new PointsService.PointAward(event.getUserId(), event.getGoalId(), event.getType(),
+                            event.getDifficulty() != null ? event.getDifficulty() : "MEDIUM",
+                            event.getGoalType(), event.getDeadline(), event.getTimestamp(),
+                            event.getEventId() != null ? event.getEventId() : eventId(record)));
+                } else if (value instanceof NotificationEvent event) {
+                    String difficulty = legacyDifficulties.getOrDefault(event.getRelatedId(), "MEDIUM");
+                    awards.add(new PointsService.PointAward(event.getUserId(), event.getRelatedId(), event.getType(),
+                            difficulty, eventId(record)));
+                } else {
+                    log.warn("Skipping points record at {}-{}@{} with unexpected payload {}",
+                            record.topic(), record.partition(), record.offset(),
+                            value != null ? value.getClass().getName() : null);
+                }
+            }
+
+            pointsService.addPointsBatch(awards);
+            meterRegistry.counter("points.events.consumed", "mode", "batch").increment(awards.size());
+        });
+    }
+
+    /**
+     * Fallback event id for records published without one: a redelivered record keeps its coordinates.
+     */
+    static String eventId(ConsumerRecord<?, ?> record) {
+        return eventId(record.topic(), record.partition(), record.offset());
+    }
+
+    static String eventId(String topic, int partition, long offset) {
+        return "kafka-" + topic + "-" + partition + "@" + offset;
+    }
+
+    /**
+     * Legacy records need a goal-service lookup: once per goal, concurrently, bounded by downstream.max-in-flight.
+     * Blocks because the batch cannot be scored, and its offsets must not be committed, until every lookup is back.
+     */
+    private Map<Long, String> legacyDifficulties(List<ConsumerRecord<String, Object>> records) {
+        Set<Long> goalIds = records.stream()
+                .map(ConsumerRecord::value)
+                .filter(NotificationEvent.class::isInstance)
+                .map(value -> ((NotificationEvent) value).getRelatedId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (goalIds.isEmpty()) {
+            return Map.of();
+        }
+        return Flux.fromIterable(goalIds)
+                .flatMap(goalId -> goalDifficultyClient.getGoalDifficulty(goalId).map(difficulty -> Map.entry(goalId, difficulty)),
+                        downstreamCalls.maxInFlight())
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block();
+    }
+}
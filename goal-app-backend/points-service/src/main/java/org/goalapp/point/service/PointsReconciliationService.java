@@ -0,0 +1,394 @@
+package org.goalapp.point.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.goalapp.point.dto.PointsDriftDto;
+import org.goalapp.point.dto.PointsReconciliationReportDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Compares users.points in user-service with the points ledger and reports (optionally corrects) the drift
+ * left behind when a push to user-service fails.
+ *
+ * The ledger side is user_points_balance, which is SUM(points_log) kept in the ledger's own transaction
+ * (and checked by PointsBalanceVerifier); users without a seeded balance row are summed from points_log.
+ * The user id space is cut into ranges that are scanned concurrently, each walking both sides in sorted
+ * keyset chunks, so memory is bounded by parallelism x chunk size however many users there are.
+ *
+ * Corrections are deltas sent through the normal user-service endpoint. Each run records the drift it saw in
+ * points_reconcile_drift, and a drift is only corrected once a later run sees the same value again; the
+ * chunk is then read once more and only corrected if the drift did not move, so awards in flight are not
+ * mistaken for drift. Runs are serialized across instances by a MySQL named lock.
+ */
+@Service
+public class PointsReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(PointsReconciliationService.class);
+
+    private static final String SELECT_BALANCES_SQL =
+            "SELECT user_id, balance FROM user_points_balance " +
+            "WHERE user_id > :afterId AND user_id <= :toId AND last_log_id >= 0";
+
+    private static final String SUM_LEDGER_SQL =
+            "SELECT user_id, SUM(points_change) AS total FROM points_log WHERE user_id IN (:userIds) GROUP BY user_id";
+
+    private static final String MAX_USER_ID_SQL = "SELECT COALESCE(MAX(user_id), 0) FROM user_points_balance";
+
+    private static final String SELECT_RECORDED_DRIFT_SQL =
+            "SELECT user_id, drift FROM points_reconcile_drift WHERE user_id > :afterId AND user_id <= :toId";
+
+    private static final String UPSERT_DRIFT_SQL =
+            "INSERT INTO points_reconcile_drift (user_id, drift, seen_at) VALUES (:userId, :drift, :seenAt) " +
+            "ON DUPLICATE KEY UPDATE drift = VALUES(drift), seen_at = VALUES(seen_at)";
+
+    private static final String DELETE_DRIFT_SQL = "DELETE FROM points_reconcile_drift WHERE user_id IN (:userIds)";
+
+    private static final String LOCK_NAME = "points-reconcile";
+
+    // Ranges per worker, so one dense range does not leave the other workers idle
+    private static final int RANGES_PER_WORKER = 4;
+
+    private final UserPointsClient userPointsClient;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<PointsReconciliationReportDto> lastReport = new AtomicReference<>();
+    private final AtomicLong lastDriftedUsers = new AtomicLong();
+
+    @Value("${points.reconcile.chunk-size:5000}")
+    private int chunkSize;
+
+    // 0 = one worker per core
+    @Value("${points.reconcile.parallelism:0}")
+    private int parallelism;
+
+    @Value("${points.reconcile.max-reported:100}")
+    private int maxReported;
+
+    @Value("${points.reconcile.correct:false}")
+    private boolean correctOnSchedule;
+
+    public PointsReconciliationService(UserPointsClient userPointsClient,
+                                       NamedParameterJdbcTemplate jdbcTemplate,
+                                       MeterRegistry meterRegistry) {
+        this.userPointsClient = userPointsClient;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("points.reconcile.drifted.users", lastDriftedUsers, AtomicLong::get)
+                .description("Users whose user-service points differed from the ledger in the last reconciliation")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${points.reconcile.interval-ms:86400000}",
+            fixedDelayString = "${points.reconcile.interval-ms:86400000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile(correctOnSchedule);
+        } catch (RuntimeException e) {
+            log.error("Points reconciliation failed: {}", e.toString());
+        }
+    }
+
+    public PointsReconciliationReportDto getLastReport() {
+        return lastReport.get();
+    }
+
+    /**
+     * Scan every user once. With correct=true, stable drift is pushed to user-service as deltas.
+     */
+    public PointsReconciliationReportDto reconcile(boolean correct) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Points reconciliation is already running");
+        }
+        // The named lock lives on its own connection for the whole run; the workers use the pool
+        try (Connection lockConnection = jdbcTemplate.getJdbcTemplate().getDataSource().getConnection()) {
+            if (!acquireLock(lockConnection)) {
+                throw new IllegalStateException("Points reconciliation is already running on another instance");
+            }
+            try {
+                return reconcileLocked(correct);
+            } finally {
+                releaseLock(lockConnection);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Points reconciliation could not get its lock connection", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private PointsReconciliationReportDto reconcileLocked(boolean correct) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+
+        Long userMax = userPointsClient.fetchMaxUserId().block();
+        Long ledgerMax = jdbcTemplate.getJdbcTemplate().queryForObject(MAX_USER_ID_SQL, Long.class);
+        long maxUserId = Math.max(userMax != null ? userMax : 0, ledgerMax != null ? ledgerMax : 0);
+
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        List<long[]> ranges = split(maxUserId, workers * RANGES_PER_WORKER);
+
+        RangeResult total = new RangeResult(maxReported);
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<RangeResult>> futures = new ArrayList<>(ranges.size());
+            for (long[] range : ranges) {
+                futures.add(executor.submit(() -> reconcileRange(range[0], range[1], correct)));
+            }
+            for (Future<RangeResult> future : futures) {
+                total.merge(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Points reconciliation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Points reconciliation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        PointsReconciliationReportDto report = total.toReport(startedAt, (System.nanoTime() - start) / 1_000_000);
+        lastReport.set(report);
+        lastDriftedUsers.set(total.driftedUsers);
+        log.info("Reconciled {} users in {} ms over {} ranges: {} drifted (net {}, absolute {}), " +
+                        "{} only in the ledger, {} corrected",
+                report.getUsersScanned(), report.getDurationMs(), ranges.size(), report.getDriftedUsers(),
+                report.getNetDrift(), report.getAbsoluteDrift(), report.getMissingInUserService(),
+                report.getCorrected());
+        return report;
+    }
+
+    private boolean acquireLock(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            ps.setString(1, LOCK_NAME);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void releaseLock(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        }
+    }
+
+    /**
+     * (afterId, toId] ranges covering 1..maxUserId.
+     */
+    private static List<long[]> split(long maxUserId, int count) {
+        List<long[]> ranges = new ArrayList<>();
+        long width = Math.max(1, (maxUserId + count - 1) / count);
+        for (long after = 0; after < maxUserId; after += width) {
+            ranges.add(new long[]{after, Math.min(after + width, maxUserId)});
+        }
+        return ranges;
+    }
+
+    private RangeResult reconcileRange(long afterId, long toId, boolean correct) {
+        RangeResult result = new RangeResult(maxReported);
+        long after = afterId;
+        while (after < toId) {
+            List<UserPointsClient.UserPoints> users = userPointsClient.fetchPointsPage(after, toId, chunkSize).block();
+            // A full page ends the chunk at its last user; a short one means the range is exhausted
+            long upper = users != null && users.size() == chunkSize ? users.get(users.size() - 1).id() : toId;
+            Map<Long, Long> drifts = compareChunk(users != null ? users : List.of(), after, upper, result);
+            Map<Long, Long> confirmed = recordDrift(after, upper, drifts);
+            if (correct && !confirmed.isEmpty()) {
+                result.corrected += correct(after, upper, confirmed);
+            }
+            after = upper;
+        }
+        return result;
+    }
+
+    /**
+     * @return drift per drifted user in the chunk
+     */
+    private Map<Long, Long> compareChunk(List<UserPointsClient.UserPoints> users, long afterId, long upper,
+                                         RangeResult result) {
+        Map<Long, Long> ledger = ledgerPoints(users, afterId, upper);
+        Map<Long, Long> drifts = new HashMap<>();
+        for (UserPointsClient.UserPoints user : users) {
+            long ledgerPoints = ledger.getOrDefault(user.id(), 0L);
+            ledger.remove(user.id());
+            int userPoints = user.points() != null ? user.points() : 0;
+            result.usersScanned++;
+            if (ledgerPoints != userPoints) {
+                drifts.put(user.id(), ledgerPoints - userPoints);
+                result.add(new PointsDriftDto(user.id(), ledgerPoints, userPoints));
+            }
+        }
+        // Whatever is left has ledger points but no user-service row
+        result.missingInUserService += ledger.size();
+        return drifts;
+    }
+
+    /**
+     * Ledger totals for the chunk: seeded balance rows in range, plus ledger sums for the chunk's
+     * users that have no seeded balance row yet.
+     */
+    private Map<Long, Long> ledgerPoints(List<UserPointsClient.UserPoints> users, long afterId, long upper) {
+        Map<Long, Long> ledger = new HashMap<>();
+        jdbcTemplate.query(SELECT_BALANCES_SQL,
+                new MapSqlParameterSource("afterId", afterId).addValue("toId", upper),
+                rs -> {
+                    ledger.put(rs.getLong("user_id"), rs.getLong("balance"));
+                });
+        List<Long> unseeded = users.stream().map(UserPointsClient.UserPoints::id)
+                .filter(id -> !ledger.containsKey(id)).toList();
+        if (!unseeded.isEmpty()) {
+            jdbcTemplate.query(SUM_LEDGER_SQL, new MapSqlParameterSource("userIds", unseeded),
+                    rs -> {
+                        ledger.put(rs.getLong("user_id"), rs.getLong("total"));
+                    });
+        }
+        return ledger;
+    }
+
+    /**
+     * Store the chunk's drift for the next run and forget users that no longer drift.
+     *
+     * @return the drift that the previous run already saw with the same value
+     */
+    private Map<Long, Long> recordDrift(long afterId, long upper, Map<Long, Long> drifts) {
+        Map<Long, Long> recorded = new HashMap<>();
+        jdbcTemplate.query(SELECT_RECORDED_DRIFT_SQL,
+                new MapSqlParameterSource("afterId", afterId).addValue("toId", upper),
+                rs -> {
+                    recorded.put(rs.getLong("user_id"), rs.getLong("drift"));
+                });
+        Map<Long, Long> confirmed = new HashMap<>();
+        List<MapSqlParameterSource> rows = new ArrayList<>();
+        Timestamp seenAt = Timestamp.valueOf(LocalDateTime.now());
+        for (Map.Entry<Long, Long> drift : drifts.entrySet()) {
+            if (drift.getValue().equals(recorded.remove(drift.getKey()))) {
+                confirmed.put(drift.getKey(), drift.getValue());
+            }
+            rows.add(new MapSqlParameterSource("userId", drift.getKey())
+                    .addValue("drift", drift.getValue())
+                    .addValue("seenAt", seenAt));
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_DRIFT_SQL, rows.toArray(new MapSqlParameterSource[0]));
+        }
+        // Left over: drifted last time, in line now
+        forgetDrift(recorded.keySet());
+        return confirmed;
+    }
+
+    private void forgetDrift(Collection<Long> userIds) {
+        if (!userIds.isEmpty()) {
+            jdbcTemplate.update(DELETE_DRIFT_SQL, new MapSqlParameterSource("userIds", userIds));
+        }
+    }
+
+    /**
+     * Re-read the chunk and push the drift that did not change between the two reads.
+     */
+    private int correct(long afterId, long upper, Map<Long, Long> drifts) {
+        List<UserPointsClient.UserPoints> users = userPointsClient.fetchPointsPage(afterId, upper, chunkSize).block();
+        if (users == null) {
+            return 0;
+        }
+        Map<Long, Long> ledger = ledgerPoints(users, afterId, upper);
+        Map<Long, Integer> deltas = new HashMap<>();
+        for (UserPointsClient.UserPoints user : users) {
+            Long drift = drifts.get(user.id());
+            long current = ledger.getOrDefault(user.id(), 0L) - (user.points() != null ? user.points() : 0);
+            if (drift != null && drift == current) {
+                deltas.put(user.id(), Math.toIntExact(drift));
+            }
+        }
+        userPointsClient.applyDeltas(deltas).block();
+        // A push that failed leaves the drift in place, so it is recorded and confirmed again by later runs
+        forgetDrift(deltas.keySet());
+        meterRegistry.counter("points.reconcile.corrections").increment(deltas.size());
+        return deltas.size();
+    }
+
+    private static final class RangeResult {
+        private final int maxReported;
+        // Smallest absolute drift on top, so the largest ones are kept
+        private final PriorityQueue<PointsDriftDto> largest =
+                new PriorityQueue<>(Comparator.comparingLong(drift -> Math.abs(drift.getDrift())));
+        long usersScanned;
+        long driftedUsers;
+        long netDrift;
+        long absoluteDrift;
+        long missingInUserService;
+        long corrected;
+
+        RangeResult(int maxReported) {
+            this.maxReported = maxReported;
+        }
+
+        void add(PointsDriftDto drift) {
+            driftedUsers++;
+            netDrift += drift.getDrift();
+            absoluteDrift += Math.abs(drift.getDrift());
+            keep(drift);
+        }
+
+        private void keep(PointsDriftDto drift) {
+            largest.add(drift);
+            if (largest.size() > maxReported) {
+                largest.poll();
+            }
+        }
+
+        void merge(RangeResult other) {
+            usersScanned += other.usersScanned;
+            driftedUsers += other.driftedUsers;
+            netDrift += other.netDrift;
+            absoluteDrift += other.absoluteDrift;
+            missingInUserService += other.missingInUserService;
+            corrected += other.corrected;
+            other.largest.forEach(this::keep);
+        }
+
+        PointsReconciliationReportDto toReport(LocalDateTime startedAt, long durationMs) {
+            List<PointsDriftDto> drifts = new ArrayList<>(largest);
+            drifts.sort(Comparator.comparingLong((PointsDriftDto drift) -> Math.abs(drift.getDrift())).reversed());
+            PointsReconciliationReportDto report = new PointsReconciliationReportDto();
+            report.setStartedAt(startedAt);
+            report.setDurationMs(durationMs);
+            report.setUsersScanned(usersScanned);
+            report.setDriftedUsers(driftedUsers);
+            report.setNetDrift(netDrift);
+            report.setAbsoluteDrift(absoluteDrift);
+            report.setMissingInUserService(missingInUserService);
+            report.setCorrected(corrected);
+            report.setDrifts(drifts);
+            return report;
+        }
+    }
+}
@@ -1,22 +1,77 @@
 package org.goalapp.point.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.goalapp.common.dto.NotificationEvent;
+import org.goalapp.common.stream.JdbcJsonStreamer;
+import org.goalapp.point.dto.PointsBalanceDto;
 import org.goalapp.point.dto.PointsLogDto;
+import org.goalapp.point.dto.PointsPageDto;
+import org.goalapp.point.dto.PointsSeriesPointDto;
 import org.goalapp.point.entities.PointsLog;
+import org.goalapp.point.entities.PointsRollup;
+import org.goalapp.point.repository.PointsBalanceHistoryReader;
+import org.goalapp.point.repository.PointsBalanceWriter;
+import org.goalapp.point.repository.PointsLedgerReader;
+import org.goalapp.point.repository.PointsLedgerWriter;
 import org.goalapp.point.repository.PointsLogRepository;
+import org.goalapp.point.repository.PointsRollupRepository;
+import org.goalapp.point.repository.PointsRollupWriter;
+import org.goalapp.point.repository.UserPointsBalanceRepository;
+import org.goalapp.point.rules.CompiledPointsRules;
+import org.goalapp.point.rules.PointsRulesEngine;
+import org.goalapp.point.wal.PointsWriteAheadLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
 public class PointsService {
 
+    private static final Logger log = LoggerFactory.getLogger(PointsService.class);
+
+    /**
+     * One goal lifecycle event to score. goalType, deadline and occurredAt may be null
+     * (legacy records and manual awards), which turns off the rules that need them.
+     * Awards with the same (userId, goalId, reason, eventId) are recorded once; a null eventId is never deduped.
+     */
+    public record PointAward(Long userId, Long goalId, String reason, String difficulty,
+                             String goalType, LocalDateTime deadline, LocalDateTime occurredAt, String eventId) {
+
+        public PointAward(Long userId, Long goalId, String reason, String difficulty, String eventId) {
+            this(userId, goalId, reason, difficulty, null, null, null, eventId);
+        }
+    }
+
+    /**
+     * Outcome of one ledger entry: its row id, and whether that row was already there.
+     */
+    private record Recorded(Long id, boolean duplicate) {
+    }
+
     @Autowired
     private PointsLogRepository pointsLogRepository;
 
@@ -24,26 +79,256 @@ public class PointsService {
     private KafkaTemplate<String, NotificationEvent> kafkaTemplate;
 
     @Autowired
-    private WebClient.Builder webClientBuilder;
+    private UserPointsClient userPointsClient;
+
+    @Autowired
+    private JdbcJsonStreamer jdbcJsonStreamer;
+
+    @Autowired
+    private PointsLedgerWriter pointsLedgerWriter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PointsBalanceWriter pointsBalanceWriter;
+
+    @Autowired
+    private UserPointsBalanceRepository balanceRepository;
+
+    @Autowired
+    private PointsRollupWriter pointsRollupWriter;
+
+    @Autowired
+    private PointsBalanceSnapshotter pointsBalanceSnapshotter;
+
+    @Autowired
+    private PointsRollupRepository pointsRollupRepository;
+
+    @Autowired
+    private PointsLedgerReader pointsLedgerReader;
+
+    @Autowired
+    private PointsBalanceHistoryReader balanceHistoryReader;
+
+    @Autowired
+    private PointsRulesEngine pointsRulesEngine;
+
+    @Autowired
+    private AwardDedupeStore awardDedupeStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Present only in write-behind mode (points.write-behind.enabled)
+    @Autowired(required = false)
+    private PointsWriteAheadLog writeAheadLog;
+
+    @Value("${points.history.max-page-size:200}")
+    private int maxPageSize;
+
+    @Value("${points.rollups.max-buckets:2000}")
+    private int maxSeriesBuckets;
+
+    public PointsLogDto addPoints(Long userId, Long goalId, String reason, String difficulty, String eventId) {
+        return addPoints(new PointAward(userId, goalId, reason, difficulty, eventId));
+    }
+
+    /**
+     * In write-behind mode the award is only logged locally and the returned entry has no id or points yet.
+     */
+    public PointsLogDto addPoints(PointAward award) {
+        if (writeAheadLog != null) {
+            return writeBehind(List.of(award)).get(0);
+        }
+        Long userId = award.userId();
+        Long goalId = award.goalId();
+        String reason = award.reason();
+        LocalDateTime now = LocalDateTime.now();
+        int pointsChange = calculatePoints(List.of(award), now)[0];
+        PointsLedgerWriter.Entry entry = new PointsLedgerWriter.Entry(userId, goalId, pointsChange, reason, loggedAt(award, now),
+                AwardDedupeStore.key(userId, goalId, reason, award.eventId()));
+        Recorded recorded = recordLedger(List.of(entry)).get(0);
+        if (recorded.duplicate()) {
+            // Already credited: answer with the original row and leave user-service alone
+            log.info("Duplicate points award ignored: userId={}, goalId={}, reason={}", userId, goalId, reason);
+            return pointsLogRepository.findById(recorded.id())
+                    .map(this::convertToDto)
+                    .orElseThrow(() -> new RuntimeException("Points entry " + recorded.id() + " not found"));
+        }
+        Long id = recorded.id();
+
+        // Update user points via user service. Waited for on purpose: it is the listener's backpressure
+        // (a fire-and-forget push would only pile up in the pool's pending queue and be dropped there)
+        userPointsClient.applyDelta(userId, pointsChange).block();
+
+        PointsLogDto dto = new PointsLogDto();
+        dto.setId(id);
+        dto.setUserId(userId);
+        dto.setGoalId(goalId);
+        dto.setPointsChange(pointsChange);
+        dto.setReason(reason);
+        dto.setLoggedAt(entry.loggedAt());
+        return dto;
+    }
+
+    /**
+     * Score a whole consumer batch: all ledger rows go in one transaction as a JDBC batch, then
+     * user-service gets one call per user with the summed change instead of one per event.
+     *
+     * @return the net change per user; empty in write-behind mode, where scoring happens when the log drains
+     */
+    public Map<Long, Integer> addPointsBatch(List<PointAward> awards) {
+        if (writeAheadLog != null) {
+            writeBehind(awards);
+            return Map.of();
+        }
+        return recordAwards(awards);
+    }
 
-    @Value("${services.user-service.url:http://localhost:8081}")
-    private String userServiceUrl;
+    /**
+     * Score, record and push a list of awards straight to the database (the write-behind drainer's entry point).
+     */
+    public Map<Long, Integer> recordAwards(List<PointAward> awards) {
+        if (awards.isEmpty()) {
+            return Map.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<PointsLedgerWriter.Entry> entries = new ArrayList<>(awards.size());
+        int[] points = calculatePoints(awards, now);
+        for (int i = 0; i < awards.size(); i++) {
+            PointAward award = awards.get(i);
+            entries.add(new PointsLedgerWriter.Entry(award.userId(), award.goalId(), points[i], award.reason(),
+                    loggedAt(award, now),
+                    AwardDedupeStore.key(award.userId(), award.goalId(), award.reason(), award.eventId())));
+        }
 
-    public PointsLogDto addPoints(Long userId, Long goalId, String reason, String difficulty) {
-        int pointsChange = calculatePoints(reason, difficulty);
+        List<Recorded> recorded = recordLedger(entries);
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        int duplicates = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            if (recorded.get(i).duplicate()) {
+                duplicates++;
+                continue;
+            }
+            deltas.merge(entries.get(i).userId(), entries.get(i).pointsChange(), Integer::sum);
+        }
 
-        PointsLog pointsLog = new PointsLog();
-        pointsLog.setUserId(userId);
-        pointsLog.setGoalId(goalId);
-        pointsLog.setPointsChange(pointsChange);
-        pointsLog.setReason(reason);
+        // Only after the ledger commits, as with addPoints. The calls run concurrently and the batch
+        // waits once for all of them, which keeps Kafka from outrunning user-service. The wait never
+        // fails the batch: push errors are swallowed by UserPointsClient and left to reconciliation
+        userPointsClient.applyDeltas(deltas).block();
+        log.info("Recorded {} points events for {} users, {} duplicates ignored",
+                awards.size() - duplicates, deltas.size(), duplicates);
+        return deltas;
+    }
 
-        PointsLog savedLog = pointsLogRepository.save(pointsLog);
+    /**
+     * Accept awards into the local write-ahead log. Each gets an event id (so a replay after a crash is
+     * deduplicated) and its occurrence time (so it scores the same whenever it is drained).
+     */
+    private List<PointsLogDto> writeBehind(List<PointAward> awards) {
+        LocalDateTime now = LocalDateTime.now();
+        List<PointAward> logged = awards.stream()
+                .map(award -> new PointAward(award.userId(), award.goalId(), award.reason(), award.difficulty(),
+                        award.goalType(), award.deadline(),
+                        award.occurredAt() != null ? award.occurredAt() : now,
+                        award.eventId() != null && !award.eventId().isBlank() ? award.eventId() : "wal-" + UUID.randomUUID()))
+                .toList();
+        writeAheadLog.append(logged);
+        return logged.stream().map(award -> {
+            PointsLogDto dto = new PointsLogDto();
+            dto.setUserId(award.userId());
+            dto.setGoalId(award.goalId());
+            dto.setReason(award.reason());
+            dto.setLoggedAt(now);
+            return dto;
+        }).toList();
+    }
 
-        // Update user points via user service
-        updateUserPoints(userId, pointsChange);
+    /**
+     * Insert ledger rows and fold them into user_points_balance and points_rollups in one transaction.
+     * Entries whose idempotency key is already recorded (in memory, in the database, or earlier in the
+     * same list) are skipped and report the existing row instead.
+     *
+     * @return one result per entry, in input order
+     */
+    private List<Recorded> recordLedger(List<PointsLedgerWriter.Entry> entries) {
+        Recorded[] results = new Recorded[entries.size()];
+        Map<String, Integer> firstByKey = new HashMap<>();
+        List<Integer> pending = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            String key = entries.get(i).idempotencyKey();
+            if (key != null) {
+                Long known = awardDedupeStore.recentId(key);
+                if (known != null) {
+                    results[i] = new Recorded(known, true);
+                    duplicateCounter("memory").increment();
+                    continue;
+                }
+                if (firstByKey.putIfAbsent(key, i) != null) {
+                    continue; // resolved below, once the first occurrence has its id
+                }
+            }
+            pending.add(i);
+        }
 
-        return convertToDto(savedLog);
+        Map<String, Long> committed = new HashMap<>();
+        if (!pending.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> seeded = pointsBalanceWriter.lock(pending.stream().map(i -> entries.get(i).userId()).toList());
+                pointsRollupWriter.seed(seeded);
+
+                // Race-free under the balance locks; the unique key is only a backstop
+                Map<String, Long> existing = awardDedupeStore.findExisting(pending.stream()
+                        .map(i -> entries.get(i).idempotencyKey()).filter(Objects::nonNull).toList());
+                List<Integer> fresh = new ArrayList<>(pending.size());
+                for (int i : pending) {
+                    Long existingId = entries.get(i).idempotencyKey() != null
+                            ? existing.get(entries.get(i).idempotencyKey()) : null;
+                    if (existingId != null) {
+                        results[i] = new Recorded(existingId, true);
+                        duplicateCounter("database").increment();
+                    } else {
+                        fresh.add(i);
+                    }
+                }
+                committed.putAll(existing);
+
+                List<PointsLedgerWriter.Entry> freshEntries = fresh.stream().map(entries::get).toList();
+                List<Long> ids = pointsLedgerWriter.insert(freshEntries);
+                pointsRollupWriter.add(freshEntries);
+                pointsBalanceSnapshotter.applyLate(freshEntries);
+
+                Map<Long, PointsBalanceWriter.Delta> deltas = new HashMap<>();
+                for (int j = 0; j < fresh.size(); j++) {
+                    PointsLedgerWriter.Entry entry = freshEntries.get(j);
+                    long id = ids.get(j);
+                    results[fresh.get(j)] = new Recorded(id, false);
+                    if (entry.idempotencyKey() != null) {
+                        committed.put(entry.idempotencyKey(), id);
+                    }
+                    deltas.merge(entry.userId(), new PointsBalanceWriter.Delta(entry.pointsChange(), id),
+                            (a, b) -> new PointsBalanceWriter.Delta(a.pointsChange() + b.pointsChange(),
+                                    Math.max(a.lastLogId(), b.lastLogId())));
+                }
+                pointsBalanceWriter.apply(deltas);
+            });
+            awardDedupeStore.remember(committed);
+        }
+
+        for (int i = 0; i < entries.size(); i++) {
+            if (results[i] == null) {
+                // Repeated within this list: same row as its first occurrence
+                results[i] = new Recorded(results[firstByKey.get(entries.get(i).idempotencyKey())].id(), true);
+                duplicateCounter("batch").increment();
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private Counter duplicateCounter(String source) {
+        return meterRegistry.counter("points.awards.duplicates", "source", source);
     }
 
     public List<PointsLogDto> getUserPointsHistory(Long userId) {
@@ -52,6 +337,34 @@ public class PointsService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Same rows as getUserPointsHistory, written to the stream as they are read.
+     */
+    public void streamUserPointsHistory(Long userId, OutputStream out) throws IOException {
+        jdbcJsonStreamer.streamArray(out,
+                "SELECT id, user_id, goal_id, points_change, reason, logged_at FROM points_log WHERE user_id = ? ORDER BY id",
+                PointsLedgerReader.ROW_MAPPER,
+                userId);
+    }
+
+    /**
+     * A page of the user's history, newest first. Pass the previous page's nextCursor to continue.
+     */
+    public PointsPageDto getUserPointsPage(Long userId, String reason, Long goalId, String cursor, int limit) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new RuntimeException("Page size must be between 1 and " + maxPageSize);
+        }
+        PointsLedgerReader.Cursor after = cursor != null ? PointsLedgerReader.Cursor.decode(cursor) : null;
+        // One extra row tells whether another page follows
+        List<PointsLogDto> rows = pointsLedgerReader.page(userId, reason, goalId, after, limit + 1);
+        if (rows.size() <= limit) {
+            return new PointsPageDto(rows, null);
+        }
+        List<PointsLogDto> items = new ArrayList<>(rows.subList(0, limit));
+        PointsLogDto last = items.get(items.size() - 1);
+        return new PointsPageDto(items, new PointsLedgerReader.Cursor(last.getLoggedAt(), last.getId()).encode());
+    }
+
     public List<PointsLogDto> getGoalPointsHistory(Long goalId) {
         return pointsLogRepository.findByGoalId(goalId).stream()
                 .map(this::convertToDto)
@@ -59,8 +372,28 @@ public class PointsService {
     }
 
     public Integer getTotalUserPoints(Long userId) {
-        Integer total = pointsLogRepository.getTotalPointsByUserId(userId);
-        return total != null ? total : 0;
+        // Primary-key read; users without a balance row have never had a ledger row written since it existed
+        return balanceRepository.findById(userId)
+                .map(balance -> Math.toIntExact(balance.getBalance()))
+                .orElseGet(() -> {
+                    Integer total = pointsLogRepository.getTotalPointsByUserId(userId);
+                    return total != null ? total : 0;
+                });
+    }
+
+    /**
+     * Balance at a point in time, from the nearest monthly snapshot plus bounded rollup and ledger ranges.
+     * A user whose history predates rollups gets them built first, as their next award would.
+     */
+    public PointsBalanceDto getBalanceAsOf(Long userId, LocalDateTime asOf) {
+        if (!balanceRepository.existsById(userId)) {
+            if (!pointsLogRepository.existsByUserId(userId)) {
+                return new PointsBalanceDto(userId, asOf, 0L, null);
+            }
+            transactionTemplate.executeWithoutResult(status ->
+                    pointsRollupWriter.seed(pointsBalanceWriter.lock(List.of(userId))));
+        }
+        return balanceHistoryReader.balanceAsOf(userId, asOf);
     }
 
     public List<PointsLogDto> getUserPointsInPeriod(Long userId, LocalDateTime start, LocalDateTime end) {
@@ -69,40 +402,112 @@ public class PointsService {
                 .collect(Collectors.toList());
     }
 
-    private int calculatePoints(String reason, String difficulty) {
-        int basePoints = 0;
+    /**
+     * Points per hour or day in [from, to), served from points_rollups. Buckets without events are left out.
+     * Users who have not earned points since rollups were introduced are summed from the ledger instead.
+     */
+    public List<PointsSeriesPointDto> getUserPointsSeries(Long userId, PointsRollup.Bucket bucket,
+                                                          LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = bucket.truncate(from);
+        long buckets = bucket == PointsRollup.Bucket.HOUR
+                ? Duration.between(start, to).toHours()
+                : Duration.between(start, to).toDays();
+        if (!to.isAfter(start) || buckets > maxSeriesBuckets) {
+            throw new RuntimeException("Series must cover between 1 and " + maxSeriesBuckets + " buckets");
+        }
+        if (!balanceRepository.existsById(userId)) {
+            return ledgerSeries(userId, bucket, start, to);
+        }
+        return pointsRollupRepository.findSeries(userId, bucket, start, to).stream()
+                .map(rollup -> new PointsSeriesPointDto(rollup.getBucketStart(), rollup.getPointsTotal(),
+                        rollup.getEventCount()))
+                .collect(Collectors.toList());
+    }
 
-        if ("GOAL_COMPLETED".equals(reason)) {
-            switch (difficulty) {
-                case "EASY": basePoints = 10; break;
-                case "MEDIUM": basePoints = 20; break;
-                case "HARD": basePoints = 30; break;
-                default: basePoints = 15;
-            }
-        } else if ("GOAL_MISSED".equals(reason)) {
-            switch (difficulty) {
-                case "EASY": basePoints = -5; break;
-                case "MEDIUM": basePoints = -10; break;
-                case "HARD": basePoints = -15; break;
-                default: basePoints = -10;
+    private List<PointsSeriesPointDto> ledgerSeries(Long userId, PointsRollup.Bucket bucket,
+                                                    LocalDateTime from, LocalDateTime to) {
+        Map<LocalDateTime, PointsSeriesPointDto> points = new TreeMap<>();
+        for (PointsLog entry : pointsLogRepository.findByUserIdAndLoggedAtBetween(userId, from, to)) {
+            if (!entry.getLoggedAt().isBefore(to)) {
+                continue;
             }
+            LocalDateTime bucketStart = bucket.truncate(entry.getLoggedAt());
+            PointsSeriesPointDto point = points.computeIfAbsent(bucketStart,
+                    key -> new PointsSeriesPointDto(key, 0L, 0));
+            point.setPoints(point.getPoints() + entry.getPointsChange());
+            point.setEvents(point.getEvents() + 1);
         }
+        return new ArrayList<>(points.values());
+    }
 
-        return basePoints;
+    /**
+     * Score the awards with the current rules. Streaks are looked up for the whole batch in one query,
+     * and only when a streak rule exists.
+     */
+    private int[] calculatePoints(List<PointAward> awards, LocalDateTime now) {
+        CompiledPointsRules rules = pointsRulesEngine.rules();
+        int[] streaks = rules.maxStreakDays() > 0
+                ? streakDays(awards, rules.maxStreakDays(), now)
+                : new int[awards.size()];
+
+        int[] points = new int[awards.size()];
+        for (int i = 0; i < awards.size(); i++) {
+            PointAward award = awards.get(i);
+            LocalDateTime occurredAt = award.occurredAt() != null ? award.occurredAt() : now;
+            long secondsBeforeDeadline = award.deadline() != null
+                    ? ChronoUnit.SECONDS.between(occurredAt, award.deadline())
+                    : CompiledPointsRules.UNKNOWN_SECONDS_BEFORE_DEADLINE;
+            points[i] = rules.evaluate(
+                    CompiledPointsRules.reasonIndex(award.reason()),
+                    CompiledPointsRules.difficultyIndex(award.difficulty()),
+                    CompiledPointsRules.goalTypeIndex(award.goalType()),
+                    secondsBeforeDeadline,
+                    streaks[i],
+                    occurredAt.toEpochSecond(ZoneOffset.UTC));
+        }
+        return points;
     }
 
-    private void updateUserPoints(Long userId, Integer pointsChange) {
-        try {
-            webClientBuilder.build()
-                    .put()
-                    .uri(userServiceUrl + "/api/users/{id}/points?pointsChange={pointsChange}",
-                            userId, pointsChange)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-        } catch (Exception e) {
-            System.err.println("Failed to update user points: " + e.getMessage());
+    /**
+     * Consecutive active days right before each award's own day (not the day it is scored, which is
+     * later for awards drained from the write-behind log).
+     */
+    private int[] streakDays(List<PointAward> awards, int maxDays, LocalDateTime now) {
+        LocalDateTime[] days = new LocalDateTime[awards.size()];
+        LocalDateTime first = null;
+        LocalDateTime last = null;
+        for (int i = 0; i < awards.size(); i++) {
+            days[i] = PointsRollup.Bucket.DAY.truncate(loggedAt(awards.get(i), now));
+            first = first == null || days[i].isBefore(first) ? days[i] : first;
+            last = last == null || days[i].isAfter(last) ? days[i] : last;
+        }
+        int[] streaks = new int[awards.size()];
+        if (first == null) {
+            return streaks;
         }
+        Map<Long, Set<LocalDateTime>> activeDays = new HashMap<>();
+        for (PointsRollupRepository.ActiveDay day : pointsRollupRepository.findActiveDays(
+                awards.stream().map(PointAward::userId).collect(Collectors.toSet()),
+                PointsRollup.Bucket.DAY, first.minusDays(maxDays), last)) {
+            activeDays.computeIfAbsent(day.getUserId(), id -> new HashSet<>()).add(day.getBucketStart());
+        }
+        for (int i = 0; i < awards.size(); i++) {
+            Set<LocalDateTime> active = activeDays.getOrDefault(awards.get(i).userId(), Set.of());
+            int streak = 0;
+            while (streak < maxDays && active.contains(days[i].minusDays(streak + 1))) {
+                streak++;
+            }
+            streaks[i] = streak;
+        }
+        return streaks;
+    }
+
+    /**
+     * Ledger time of an award: when it happened, never later than now (awards drained from the
+     * write-behind log keep their original hour and day in rollups, history and snapshots).
+     */
+    private static LocalDateTime loggedAt(PointAward award, LocalDateTime now) {
+        return award.occurredAt() != null && award.occurredAt().isBefore(now) ? award.occurredAt() : now;
     }
 
     private PointsLogDto convertToDto(PointsLog pointsLog) {
@@ -0,0 +1,94 @@
+package org.goalapp.point.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pushes point changes to user-service. The ledger in points_log is the source of truth,
+ * so a failed push is logged and counted (points.user_service.push.failures) rather than failing
+ * the caller; the missing points are left to PointsReconciliationService.
+ */
+@Component
+public class UserPointsClient {
+
+    /**
+     * One row of user-service's bulk points scan.
+     */
+    public record UserPoints(Long id, Integer points) {
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(UserPointsClient.class);
+
+    private final WebClient userServiceWebClient;
+    private final DownstreamCalls downstreamCalls;
+    private final Counter pushFailures;
+    private final Counter unpushedPoints;
+
+    public UserPointsClient(@Qualifier("userServiceWebClient") WebClient userServiceWebClient,
+                            DownstreamCalls downstreamCalls, MeterRegistry meterRegistry) {
+        this.userServiceWebClient = userServiceWebClient;
+        this.downstreamCalls = downstreamCalls;
+        this.pushFailures = Counter.builder("points.user_service.push.failures")
+                .description("Point deltas that could not be pushed to user-service")
+                .register(meterRegistry);
+        this.unpushedPoints = Counter.builder("points.user_service.push.unpushed")
+                .description("Absolute points in deltas that could not be pushed to user-service")
+                .register(meterRegistry);
+    }
+
+    public Mono<Void> applyDelta(Long userId, int pointsChange) {
+        Mono<Void> request = userServiceWebClient.put()
+                .uri("/api/users/{id}/points?pointsChange={pointsChange}", userId, pointsChange)
+                .retrieve()
+                .toBodilessEntity()
+                .then();
+        // Not idempotent: only retried when the request never reached user-service
+        return downstreamCalls.call("user-service", "apply-points", false, request)
+                .onErrorResume(e -> {
+                    log.error("Failed to update user points: userId={}, change={}, error={}", userId, pointsChange, e.toString());
+                    pushFailures.increment();
+                    unpushedPoints.increment(Math.abs(pointsChange));
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * One call per user, at most downstream.max-in-flight at a time.
+     */
+    public Mono<Void> applyDeltas(Map<Long, Integer> deltas) {
+        return Flux.fromIterable(deltas.entrySet())
+                .filter(entry -> entry.getValue() != 0)
+                .flatMap(entry -> applyDelta(entry.getKey(), entry.getValue()), downstreamCalls.maxInFlight())
+                .then();
+    }
+
+    /**
+     * Users with afterId < id <= toId, in id order (keyset page from user-service).
+     */
+    public Mono<List<UserPoints>> fetchPointsPage(long afterId, long toId, int limit) {
+        Mono<List<UserPoints>> request = userServiceWebClient.get()
+                .uri("/api/users/points?afterId={afterId}&toId={toId}&limit={limit}", afterId, toId, limit)
+                .retrieve()
+                .bodyToFlux(UserPoints.class)
+                .collectList();
+        return downstreamCalls.call("user-service", "points-page", true, request);
+    }
+
+    public Mono<Long> fetchMaxUserId() {
+        Mono<Long> request = userServiceWebClient.get()
+                .uri("/api/users/points/max-id")
+                .retrieve()
+                .bodyToMono(Long.class);
+        return downstreamCalls.call("user-service", "max-user-id", true, request);
+    }
+}
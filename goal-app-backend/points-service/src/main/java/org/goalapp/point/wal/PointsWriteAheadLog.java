@@ -0,0 +1,436 @@
+package org.goalapp.point.wal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.goalapp.point.service.PointsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Local append-only log of accepted points awards for write-behind mode (points.write-behind.enabled).
+ *
+ * Awards are appended to memory-mapped segment files and acknowledged once forced to disk. Forcing is
+ * grouped: the first caller to wait forces everything appended so far, and callers queued behind it
+ * usually find their records already durable. PointsWriteBehindDrainer reads durable records in order
+ * and moves them to points_log; the drained position is kept in a checkpoint file, and segments below it
+ * are deleted. On startup the segments are scanned (a torn tail is cut off by its CRC) and draining
+ * resumes after the checkpoint. Every award carries an event id, so records drained again after a crash
+ * are dropped by the ledger's idempotency key rather than counted twice. Records that cannot be decoded
+ * or recorded are parked as JSON lines in poison.jsonl next to the segments (points.writebehind.parked).
+ *
+ * Record layout: int payload length, int CRC32 of sequence and payload, long sequence, JSON payload.
+ * A zero length marks the end of a segment's data.
+ */
+@Component
+@ConditionalOnProperty(name = "points.write-behind.enabled", havingValue = "true")
+public class PointsWriteAheadLog {
+
+    private static final Logger log = LoggerFactory.getLogger(PointsWriteAheadLog.class);
+
+    private static final int HEADER_BYTES = 16;
+    private static final String SEGMENT_PREFIX = "points-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String CHECKPOINT_FILE = "drained.checkpoint";
+    private static final String LOCK_FILE = "wal.lock";
+    private static final String POISON_FILE = "poison.jsonl";
+
+    /**
+     * One logged award and its position in the log.
+     */
+    public record Entry(long sequence, PointsService.PointAward award) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final int segmentBytes;
+    private final Timer forceTimer;
+    private final Counter appendedCounter;
+    private final Counter parkedCounter;
+
+    // Segments by first sequence; guarded by this
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private Segment active;
+    private long nextSequence;
+    private volatile long appendedSequence;
+
+    private final Object forceLock = new Object();
+    private volatile long durableSequence;
+
+    private volatile long drainedSequence;
+    // Drainer's read position; only touched by the drainer thread
+    private long readSequence;
+    private long readSegment;
+    private int readPosition;
+
+    private FileChannel lockChannel;
+    private FileLock directoryLock;
+
+    public PointsWriteAheadLog(ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${points.write-behind.directory:data/points-wal}") String directory,
+                               @Value("${points.write-behind.segment-bytes:67108864}") int segmentBytes) {
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentBytes;
+        this.forceTimer = Timer.builder("points.writebehind.force")
+                .description("Time to force appended awards to disk; one force covers a whole group of appends")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.appendedCounter = Counter.builder("points.writebehind.appended")
+                .description("Awards accepted into the write-behind log")
+                .register(meterRegistry);
+        this.parkedCounter = Counter.builder("points.writebehind.parked")
+                .description("Awards set aside in the write-behind poison file instead of drained")
+                .register(meterRegistry);
+        Gauge.builder("points.writebehind.backlog", this, wal -> wal.appendedSequence - wal.drainedSequence)
+                .description("Awards in the write-behind log not yet drained to points_log")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        directoryLock = lockChannel.tryLock();
+        if (directoryLock == null) {
+            throw new IllegalStateException("Points write-ahead log " + directory + " is in use by another process");
+        }
+
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        drainedSequence = Files.exists(checkpoint) ? Long.parseLong(Files.readString(checkpoint).trim()) : 0;
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                    && path.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+        long lastSequence = drainedSequence;
+        for (Path file : files) {
+            Segment segment = Segment.open(file, segmentBytes);
+            lastSequence = Math.max(lastSequence, segment.recover());
+            segments.put(segment.firstSequence, segment);
+        }
+        nextSequence = lastSequence + 1;
+        appendedSequence = lastSequence;
+        durableSequence = lastSequence;
+
+        active = segments.isEmpty() ? null : segments.lastEntry().getValue();
+        if (active == null || active.writePosition + HEADER_BYTES > segmentBytes) {
+            roll();
+        }
+        deleteDrainedSegments();
+
+        readSequence = drainedSequence;
+        Long first = segments.floorKey(drainedSequence + 1);
+        readSegment = first != null ? first : segments.firstKey();
+        readPosition = 0;
+        log.info("Opened points write-ahead log {}: {} segments, {} awards waiting to drain",
+                directory, segments.size(), appendedSequence - drainedSequence);
+    }
+
+    /**
+     * Append the awards and return once they are on disk.
+     */
+    public void append(List<PointsService.PointAward> awards) {
+        if (awards.isEmpty()) {
+            return;
+        }
+        List<byte[]> payloads = new ArrayList<>(awards.size());
+        for (PointsService.PointAward award : awards) {
+            try {
+                payloads.add(objectMapper.writeValueAsBytes(award));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not serialize points award", e);
+            }
+        }
+        long last;
+        synchronized (this) {
+            for (byte[] payload : payloads) {
+                if (HEADER_BYTES + payload.length > segmentBytes) {
+                    throw new IllegalArgumentException("Points award of " + payload.length + " bytes exceeds the segment size");
+                }
+                if (active.writePosition + HEADER_BYTES + payload.length > segmentBytes) {
+                    roll();
+                }
+                active.write(nextSequence++, payload);
+            }
+            last = nextSequence - 1;
+            appendedSequence = last;
+        }
+        appendedCounter.increment(awards.size());
+        awaitDurable(last);
+    }
+
+    private void awaitDurable(long sequence) {
+        synchronized (forceLock) {
+            if (durableSequence >= sequence) {
+                return; // forced by the caller ahead of us
+            }
+            long target;
+            Segment segment;
+            synchronized (this) {
+                target = appendedSequence;
+                segment = active;
+            }
+            // Earlier segments were forced when they were rolled over
+            forceTimer.record(() -> {
+                segment.buffer.force();
+            });
+            durableSequence = target;
+        }
+    }
+
+    /**
+     * Next durable records after the last one read, oldest first. Called by the drainer thread only, and
+     * only once everything read before has been drained.
+     * A record that no longer decodes is parked instead of returned. The read position only moves once
+     * the whole batch is in hand, so a failure part-way leaves it to be read again.
+     */
+    public List<Entry> read(int max) {
+        List<Entry> entries = new ArrayList<>();
+        long sequenceRead = readSequence;
+        long segmentRead = readSegment;
+        int position = readPosition;
+        // Everything up to durable was completely written before durableSequence was published
+        long durable = durableSequence;
+        while (entries.size() < max && sequenceRead < durable) {
+            Segment segment;
+            synchronized (this) {
+                segment = segments.get(segmentRead);
+                if (segment == null) {
+                    // Deleted once drained; everything left is in later segments
+                    Long next = segments.higherKey(segmentRead);
+                    if (next == null) {
+                        break;
+                    }
+                    segmentRead = next;
+                    position = 0;
+                    continue;
+                }
+            }
+            if (position + HEADER_BYTES > segmentBytes || segment.buffer.getInt(position) <= 0) {
+                // End of this segment's data: the rest is in the next one
+                synchronized (this) {
+                    Long next = segments.higherKey(segmentRead);
+                    if (next == null) {
+                        break;
+                    }
+                    segmentRead = next;
+                }
+                position = 0;
+                continue;
+            }
+            int length = segment.buffer.getInt(position);
+            long sequence = segment.buffer.getLong(position + 8);
+            byte[] payload = new byte[length];
+            segment.buffer.get(position + HEADER_BYTES, payload);
+            position += HEADER_BYTES + length;
+            if (sequence <= sequenceRead) {
+                continue; // drained before the last restart
+            }
+            try {
+                entries.add(new Entry(sequence, objectMapper.readValue(payload, PointsService.PointAward.class)));
+            } catch (IOException e) {
+                park(sequence, new String(payload, StandardCharsets.UTF_8), e.toString());
+            }
+            sequenceRead = sequence;
+        }
+        readSequence = sequenceRead;
+        readSegment = segmentRead;
+        readPosition = position;
+        if (entries.isEmpty() && sequenceRead > drainedSequence) {
+            // Only parked records: the drainer has nothing to commit, so the checkpoint moves past them here
+            markDrained(sequenceRead);
+        }
+        return entries;
+    }
+
+    /**
+     * Set a record aside in the poison file so draining can move past it; it is replayed by hand once
+     * the cause is fixed. Throws if the record could not be written there.
+     */
+    public void park(Entry entry, String error) {
+        try {
+            park(entry.sequence(), objectMapper.writeValueAsString(entry.award()), error);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize points award at sequence " + entry.sequence(), e);
+        }
+    }
+
+    private void park(long sequence, String payload, String error) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("sequence", sequence);
+        record.put("parkedAt", LocalDateTime.now().toString());
+        record.put("error", error);
+        record.put("payload", payload);
+        try {
+            Files.write(directory.resolve(POISON_FILE), List.of(objectMapper.writeValueAsString(record)),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not park points award at sequence " + sequence, e);
+        }
+        parkedCounter.increment();
+        log.error("Parked points award at sequence {} in {}: {}", sequence, directory.resolve(POISON_FILE), error);
+    }
+
+    /**
+     * Record that everything up to sequence is in points_log, and drop segments that are fully drained.
+     */
+    public void markDrained(long sequence) {
+        drainedSequence = sequence;
+        try {
+            Path tmp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            Files.writeString(tmp, Long.toString(sequence));
+            Files.move(tmp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Harmless: a stale checkpoint only means some awards are replayed (and deduplicated) after a restart
+            log.warn("Could not write points write-ahead log checkpoint: {}", e.toString());
+        }
+        synchronized (this) {
+            deleteDrainedSegments();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+            segment.channel.close();
+        }
+        segments.clear();
+        if (directoryLock != null) {
+            directoryLock.release();
+            lockChannel.close();
+        }
+    }
+
+    private void roll() throws UncheckedIOException {
+        if (active != null) {
+            active.buffer.force();
+        }
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+        try {
+            active = Segment.open(file, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create points write-ahead log segment " + file, e);
+        }
+        segments.put(active.firstSequence, active);
+    }
+
+    private void deleteDrainedSegments() {
+        // A segment is fully drained once the next one starts at or below the checkpoint + 1
+        while (segments.size() > 1) {
+            Map.Entry<Long, Segment> first = segments.firstEntry();
+            Long nextFirst = segments.higherKey(first.getKey());
+            if (first.getValue() == active || nextFirst == null || nextFirst - 1 > drainedSequence) {
+                return;
+            }
+            segments.pollFirstEntry();
+            try {
+                first.getValue().channel.close();
+                Files.deleteIfExists(first.getValue().path);
+            } catch (IOException e) {
+                log.warn("Could not delete drained write-ahead log segment {}: {}", first.getValue().path, e.toString());
+            }
+        }
+    }
+
+    private static final class Segment {
+        final Path path;
+        final long firstSequence;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        int writePosition;
+
+        private Segment(Path path, long firstSequence, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.firstSequence = firstSequence;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path path, int size) throws IOException {
+            String name = path.getFileName().toString();
+            long firstSequence = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(path, firstSequence, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+
+        /**
+         * Find the end of the valid records; a torn or corrupt tail is zeroed so it cannot be misread later.
+         *
+         * @return the last valid sequence, or firstSequence - 1 if there is none
+         */
+        long recover() {
+            int position = 0;
+            long expected = firstSequence;
+            while (position + HEADER_BYTES <= buffer.capacity()) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + HEADER_BYTES + length > buffer.capacity()
+                        || buffer.getLong(position + 8) != expected) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(position + HEADER_BYTES, payload);
+                if (crc(expected, payload) != buffer.getInt(position + 4)) {
+                    break;
+                }
+                position += HEADER_BYTES + length;
+                expected++;
+            }
+            writePosition = position;
+            if (position + 4 <= buffer.capacity() && buffer.getInt(position) != 0) {
+                buffer.put(position, new byte[buffer.capacity() - position]);
+                buffer.force();
+            }
+            return expected - 1;
+        }
+
+        void write(long sequence, byte[] payload) {
+            int position = writePosition;
+            buffer.putLong(position + 8, sequence);
+            buffer.put(position + HEADER_BYTES, payload);
+            buffer.putInt(position + 4, crc(sequence, payload));
+            // Length last: a reader that sees it sees the whole record
+            buffer.putInt(position, payload.length);
+            writePosition = position + HEADER_BYTES + payload.length;
+        }
+
+        static int crc(long sequence, byte[] payload) {
+            CRC32 crc = new CRC32();
+            crc.update(ByteBuffer.allocate(8).putLong(0, sequence));
+            crc.update(payload);
+            return (int) crc.getValue();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.goalapp.point.wal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.goalapp.point.service.PointsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves awards from the write-ahead log into points_log in batches, in log order, on its own thread
+ * (the shared scheduler also runs the long reconciliation and snapshot jobs).
+ *
+ * A batch that fails (MySQL down or stalled) is kept and retried on the next tick; the log simply
+ * grows meanwhile (points.writebehind.backlog). Once the same batch has failed
+ * points.write-behind.max-attempts times for a reason other than the database being unreachable, its
+ * awards are recorded one by one and those that still fail are parked in the log's poison file. The
+ * checkpoint only moves after every award of a batch is committed or parked.
+ */
+@Component
+@ConditionalOnProperty(name = "points.write-behind.enabled", havingValue = "true")
+public class PointsWriteBehindDrainer {
+
+    private static final Logger log = LoggerFactory.getLogger(PointsWriteBehindDrainer.class);
+
+    private final PointsWriteAheadLog writeAheadLog;
+    private final PointsService pointsService;
+    private final Counter drainedCounter;
+    private final Counter failureCounter;
+
+    @Value("${points.write-behind.drain-batch-size:500}")
+    private int batchSize;
+
+    @Value("${points.write-behind.drain-interval-ms:50}")
+    private long intervalMs;
+
+    @Value("${points.write-behind.max-attempts:5}")
+    private int maxAttempts;
+
+    private ScheduledExecutorService executor;
+    // Read from the log but not yet committed to points_log; only touched by the drain thread
+    private List<PointsWriteAheadLog.Entry> pending = List.of();
+    private int attempts;
+
+    public PointsWriteBehindDrainer(PointsWriteAheadLog writeAheadLog, PointsService pointsService,
+                                    MeterRegistry meterRegistry) {
+        this.writeAheadLog = writeAheadLog;
+        this.pointsService = pointsService;
+        this.drainedCounter = Counter.builder("points.writebehind.drained")
+                .description("Awards moved from the write-behind log to points_log")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("points.writebehind.drain.failures")
+                .description("Drain batches that failed and will be retried")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "points-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::drain, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Drain until the log is empty or a batch fails.
+     */
+    void drain() {
+        try {
+            while (true) {
+                if (pending.isEmpty()) {
+                    pending = writeAheadLog.read(batchSize);
+                    attempts = 0;
+                    if (pending.isEmpty()) {
+                        return;
+                    }
+                }
+                int size = pending.size();
+                long last = pending.get(size - 1).sequence();
+                try {
+                    // Replays of a batch that committed before a crash are dropped by the idempotency keys
+                    pointsService.recordAwards(pending.stream().map(PointsWriteAheadLog.Entry::award).toList());
+                } catch (RuntimeException e) {
+                    if (isTransient(e) || ++attempts < maxAttempts) {
+                        throw e;
+                    }
+                    log.warn("Points award batch failed {} times, recording its awards one by one: {}", attempts, e.toString());
+                    recordOneByOne();
+                }
+                writeAheadLog.markDrained(last);
+                drainedCounter.increment(size);
+                pending = List.of();
+            }
+        } catch (RuntimeException e) {
+            failureCounter.increment();
+            log.warn("Draining {} points awards failed, will retry: {}", pending.size(), e.toString());
+        }
+    }
+
+    /**
+     * Record the pending awards singly, parking any that fail on their own. Stops, keeping the rest
+     * pending, if the database becomes unreachable.
+     */
+    private void recordOneByOne() {
+        while (!pending.isEmpty()) {
+            PointsWriteAheadLog.Entry entry = pending.get(0);
+            try {
+                pointsService.recordAwards(List.of(entry.award()));
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    throw e;
+                }
+                writeAheadLog.park(entry, e.toString());
+            }
+            pending = pending.subList(1, pending.size());
+        }
+    }
+
+    /**
+     * Failures that say nothing about the awards themselves: MySQL down, stalled or briefly refusing.
+     */
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        if (executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            // Last pass on the way out; anything left is replayed on the next start
+            drain();
+        }
+    }
+}
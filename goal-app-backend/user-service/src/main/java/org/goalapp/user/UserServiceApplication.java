@@ -1,11 +1,15 @@
 package org.goalapp.user;
 
+import org.goalapp.common.kafka.EnableKafkaTopics;
+import org.goalapp.common.outbox.EnableOutbox;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.kafka.annotation.EnableKafka;
 
 @SpringBootApplication
 @EnableKafka
+@EnableOutbox
+@EnableKafkaTopics
 public class UserServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(UserServiceApplication.class, args);
@@ -78,6 +78,24 @@ public class UserController {
         }
     }
 
+    // Bulk points scan for reconciliation with the points ledger: walk afterId forward until a page comes back short
+    @GetMapping("/points")
+    public ResponseEntity<List<UserPointsDto>> getPointsPage(
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(required = false) Long toId,
+            @RequestParam(defaultValue = "1000") int limit) {
+        try {
+            return ResponseEntity.ok(userService.getPointsPage(afterId, toId, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/points/max-id")
+    public ResponseEntity<Long> getMaxUserId() {
+        return ResponseEntity.ok(userService.getMaxUserId());
+    }
+
     // Leaderboard endpoints
     @GetMapping("/leaderboard/global")
     public ResponseEntity<LeaderboardResponseDto> getGlobalLeaderboard(
@@ -0,0 +1,32 @@
+package org.goalapp.user.dto;
+
+/**
+ * A user's id and points balance, for bulk scans (points reconciliation).
+ */
+public class UserPointsDto {
+    private Long id;
+    private Integer points;
+
+    public UserPointsDto() {}
+
+    public UserPointsDto(Long id, Integer points) {
+        this.id = id;
+        this.points = points;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getPoints() {
+        return points;
+    }
+
+    public void setPoints(Integer points) {
+        this.points = points;
+    }
+}
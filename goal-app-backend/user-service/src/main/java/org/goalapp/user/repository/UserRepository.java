@@ -1,6 +1,8 @@
 package org.goalapp.user.repository;
 
+import org.goalapp.user.dto.UserPointsDto;
 import org.goalapp.user.entities.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -17,4 +19,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT u FROM User u WHERE u.username LIKE %?1% OR u.email LIKE %?1%")
     List<User> searchUsers(String query);
+
+    // Keyset page over the primary key; only id and points are read
+    @Query("SELECT new org.goalapp.user.dto.UserPointsDto(u.id, u.points) FROM User u " +
+            "WHERE u.id > ?1 AND u.id <= ?2 ORDER BY u.id")
+    List<UserPointsDto> findPointsPage(Long afterId, Long toId, Pageable pageable);
+
+    @Query("SELECT MAX(u.id) FROM User u")
+    Optional<Long> findMaxId();
 }
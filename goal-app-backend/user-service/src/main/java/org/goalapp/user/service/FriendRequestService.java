@@ -1,6 +1,8 @@
 package org.goalapp.user.service;
 
 import org.goalapp.common.dto.NotificationEvent;
+import org.goalapp.common.kafka.KafkaTopics;
+import org.goalapp.common.outbox.OutboxPublisher;
 import org.goalapp.user.dto.FriendRequestDto;
 import org.goalapp.user.dto.UserResponseDto;
 import org.goalapp.user.entities.FriendRequest;
@@ -8,8 +10,8 @@ import org.goalapp.user.entities.User;
 import org.goalapp.user.repository.FriendRequestRepository;
 import org.goalapp.user.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,8 +27,9 @@ public class FriendRequestService {
     private UserRepository userRepository;
 
     @Autowired
-    private KafkaTemplate<String, NotificationEvent> kafkaTemplate;
+    private OutboxPublisher outboxPublisher;
 
+    @Transactional
     public FriendRequestDto sendFriendRequest(Long fromUserId, Long toUserId) {
         // Check if request already exists
         if (friendRequestRepository.findExistingRequest(fromUserId, toUserId).isPresent()) {
@@ -52,11 +55,12 @@ public class FriendRequestService {
                 fromUser.getUsername() + " sent you a friend request",
                 fromUserId
         );
-        kafkaTemplate.send("notification-topic", notification);
+        outboxPublisher.publish(KafkaTopics.NOTIFICATION, toUserId, notification);
 
         return convertToDto(savedRequest);
     }
 
+    @Transactional
     public FriendRequestDto respondToFriendRequest(Long requestId, Long userId, FriendRequest.Status status) {
         FriendRequest friendRequest = friendRequestRepository.findById(requestId)
                 .orElseThrow(() -> new RuntimeException("Friend request not found"));
@@ -83,7 +87,7 @@ public class FriendRequestService {
                     message,
                     userId
             );
-            kafkaTemplate.send("notification-topic", notification);
+            outboxPublisher.publish(KafkaTopics.NOTIFICATION, friendRequest.getFromUserId(), notification);
         }
 
         return convertToDto(savedRequest);
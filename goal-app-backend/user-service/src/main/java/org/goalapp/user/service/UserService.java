@@ -1,11 +1,10 @@
 package org.goalapp.user.service;
 
-import org.goalapp.common.dto.NotificationEvent;
 import org.goalapp.user.dto.*;
 import org.goalapp.user.entities.User;
 import org.goalapp.user.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -17,15 +16,14 @@ import java.util.stream.IntStream;
 @Service
 public class UserService {
 
+    private static final int MAX_POINTS_PAGE_SIZE = 10000;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    @Autowired
-    private KafkaTemplate<String, NotificationEvent> kafkaTemplate;
-
     public UserResponseDto registerUser(UserRegistrationDto registrationDto) {
         if (userRepository.existsByUsername(registrationDto.getUsername())) {
             throw new RuntimeException("Username already exists");
@@ -76,6 +74,20 @@ public class UserService {
         return convertToDto(savedUser);
     }
 
+    /**
+     * Users with afterId < id <= toId, in id order, at most limit of them.
+     */
+    public List<UserPointsDto> getPointsPage(Long afterId, Long toId, int limit) {
+        if (limit < 1 || limit > MAX_POINTS_PAGE_SIZE) {
+            throw new RuntimeException("limit must be between 1 and " + MAX_POINTS_PAGE_SIZE);
+        }
+        return userRepository.findPointsPage(afterId, toId != null ? toId : Long.MAX_VALUE, PageRequest.of(0, limit));
+    }
+
+    public Long getMaxUserId() {
+        return userRepository.findMaxId().orElse(0L);
+    }
+
     private UserResponseDto convertToDto(User user) {
         UserResponseDto dto = new UserResponseDto();
         dto.setId(user.getId());